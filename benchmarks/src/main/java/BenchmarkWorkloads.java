@@ -0,0 +1,164 @@
+import bench.Workload;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public final class BenchmarkWorkloads {
+    private static final int WIDTH = 1280;
+    private static final int HEIGHT = 720;
+    private static final long SEED = 42;
+
+    private BenchmarkWorkloads() {
+    }
+
+    public static Workload create(String name, int count, int parallelism) {
+        switch (name) {
+            case "particleObjects":
+                return particleObjects(count);
+            case "particleStore":
+                return kernelStep(new ScalarPhysicsKernel(), count);
+            case "vectorKernel":
+                return kernelStep(PhysicsKernels.select("vector"), count);
+            case "engineStep":
+                return engineStep(count, parallelism);
+            case "developerRender":
+                return developerRender(count, parallelism);
+            case "densityRender":
+                return densityRender(count, parallelism);
+            case "explorerFullScan":
+                return explorerRender(count, false);
+            case "explorerIndexed":
+                return explorerRender(count, true);
+            case "spawnBetweenPoints":
+                return () -> ParticleBatch.betweenPoints(count, new Point(10, 10), new Point(1270, 710), 45, 200);
+            case "spawnVaryingAngles":
+                return () -> ParticleBatch.varyingAngles(count, new Point(10, 10), 0, 360, 200);
+            case "spawnVaryingVelocities":
+                return () -> ParticleBatch.varyingVelocities(count, new Point(10, 10), 45, 50, 500);
+            default:
+                throw new IllegalArgumentException("Unknown workload: " + name);
+        }
+    }
+
+    private static Workload particleObjects(int count) {
+        Particle[] particles = randomParticles(count);
+        return () -> {
+            for (Particle particle : particles) {
+                particle.updatePosition(Constants.TIME_STEP);
+                particle.handleWallCollision(WIDTH, HEIGHT);
+            }
+            return particles;
+        };
+    }
+
+    private static Workload kernelStep(PhysicsKernel kernel, int count) {
+        ParticleStore store = randomStore(count);
+        return () -> {
+            kernel.step(store, 0, store.size(), Constants.TIME_STEP, WIDTH, HEIGHT);
+            return store;
+        };
+    }
+
+    private static Workload engineStep(int count, int parallelism) {
+        SimulationEngine engine = new SimulationEngine(WIDTH, HEIGHT, parallelism);
+        engine.addParticles(randomBatch(count));
+        engine.awaitPendingSpawns();
+        return () -> {
+            engine.step(Constants.TIME_STEP);
+            return engine.getTick();
+        };
+    }
+
+    private static Workload developerRender(int count, int parallelism) {
+        ParticleFrame frame = randomFrame(count, false);
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        PixelRasterizer rasterizer = new PixelRasterizer(image);
+        ForkJoinPool renderingThreadPool = new ForkJoinPool(parallelism);
+        return new Workload() {
+            @Override
+            public Object run() {
+                rasterizer.render(frame, 1.0, Color.WHITE.getRGB(), Color.BLACK.getRGB(), renderingThreadPool);
+                return image;
+            }
+
+            @Override
+            public void close() {
+                renderingThreadPool.shutdown();
+            }
+        };
+    }
+
+    private static Workload densityRender(int count, int parallelism) {
+        ParticleFrame frame = randomFrame(count, false);
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        DensityRasterizer rasterizer = new DensityRasterizer(image);
+        ForkJoinPool renderingThreadPool = new ForkJoinPool(parallelism);
+        return new Workload() {
+            @Override
+            public Object run() {
+                rasterizer.render(frame, 1.0, Color.WHITE.getRGB(), renderingThreadPool);
+                return image;
+            }
+
+            @Override
+            public void close() {
+                renderingThreadPool.shutdown();
+            }
+        };
+    }
+
+    private static Workload explorerRender(int count, boolean indexed) {
+        ParticleFrame frame = randomFrame(count, indexed);
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        ExplorerRenderer renderer = new ExplorerRenderer(WIDTH, HEIGHT);
+        Point spritePosition = new Point(WIDTH / 2, HEIGHT / 2);
+        return () -> {
+            Graphics2D g2d = image.createGraphics();
+            renderer.render(g2d, frame, 1.0, spritePosition, Color.WHITE);
+            g2d.dispose();
+            return image;
+        };
+    }
+
+    private static ParticleFrame randomFrame(int count, boolean indexed) {
+        ParticleFrame frame = new ParticleFrame(WIDTH, HEIGHT);
+        frame.capture(randomStore(count), 1);
+        if (indexed) {
+            frame.index();
+        }
+        return frame;
+    }
+
+    private static ParticleStore randomStore(int count) {
+        ParticleStore store = new ParticleStore(count);
+        store.addAll(randomBatch(count));
+        return store;
+    }
+
+    private static ParticleBatch randomBatch(int count) {
+        Particle[] particles = randomParticles(count);
+        ParticleBatch batch = new ParticleBatch(count);
+        for (int i = 0; i < count; i++) {
+            batch.x[i] = particles[i].position.x;
+            batch.y[i] = particles[i].position.y;
+            batch.velocityX[i] = particles[i].velocityX;
+            batch.velocityY[i] = particles[i].velocityY;
+        }
+        return batch;
+    }
+
+    private static Particle[] randomParticles(int count) {
+        Random random = new Random(SEED);
+        Particle[] particles = new Particle[count];
+        for (int i = 0; i < count; i++) {
+            int x = 1 + random.nextInt(WIDTH - 7);
+            int y = 1 + random.nextInt(HEIGHT - 7);
+            double angle = random.nextDouble() * 360;
+            double velocity = 50 + random.nextDouble() * 450;
+            particles[i] = new Particle(x, y, angle, velocity);
+        }
+        return particles;
+    }
+}
@@ -0,0 +1,18 @@
+package bench;
+
+public interface Workload {
+    Object run();
+
+    default void close() {
+    }
+
+    static Workload create(String name, int count, int parallelism) {
+        try {
+            Class<?> factory = Class.forName("BenchmarkWorkloads");
+            return (Workload) factory.getMethod("create", String.class, int.class, int.class)
+                    .invoke(null, name, count, parallelism);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to create workload " + name, e);
+        }
+    }
+}
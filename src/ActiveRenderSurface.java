@@ -0,0 +1,77 @@
+import java.awt.*;
+import java.awt.image.BufferStrategy;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+class ActiveRenderSurface extends java.awt.Canvas {
+    private static final long serialVersionUID = 1L;
+    private static final int BUFFER_COUNT = 2;
+
+    private final Supplier<Image> frames;
+    private final Runnable onPresented;
+    private final FrameMetrics metrics;
+    private final AtomicBoolean framePending = new AtomicBoolean(false);
+    private Thread renderThread;
+
+    public ActiveRenderSurface(int width, int height, Supplier<Image> frames, Runnable onPresented, FrameMetrics metrics) {
+        this.frames = frames;
+        this.onPresented = onPresented;
+        this.metrics = metrics;
+        setPreferredSize(new Dimension(width, height));
+        setIgnoreRepaint(true);
+        setFocusable(true);
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        createBufferStrategy(BUFFER_COUNT);
+        if (renderThread == null) {
+            renderThread = new Thread(this::renderLoop, "active-render");
+            renderThread.setDaemon(true);
+            renderThread.start();
+        }
+    }
+
+    public void frameAvailable() {
+        if (framePending.compareAndSet(false, true) && renderThread != null) {
+            LockSupport.unpark(renderThread);
+        }
+    }
+
+    private void renderLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            if (!framePending.getAndSet(false)) {
+                LockSupport.park(this);
+                continue;
+            }
+            present();
+        }
+    }
+
+    private void present() {
+        BufferStrategy bufferStrategy = getBufferStrategy();
+        if (bufferStrategy == null || !isDisplayable()) return;
+
+        long blitStart = System.nanoTime();
+        Image frame = frames.get();
+        do {
+            do {
+                Graphics g = bufferStrategy.getDrawGraphics();
+                try {
+                    g.drawImage(frame, 0, 0, null);
+                    g.setColor(Color.BLACK);
+                    g.drawRect(0, 0, getWidth(), getHeight());
+                } finally {
+                    g.dispose();
+                }
+            } while (bufferStrategy.contentsRestored());
+            bufferStrategy.show();
+        } while (bufferStrategy.contentsLost());
+        Toolkit.getDefaultToolkit().sync();
+        metrics.record(FrameMetrics.Phase.BLIT, System.nanoTime() - blitStart);
+
+        onPresented.run();
+    }
+}
@@ -2,135 +2,163 @@ import java.awt.*;
 import javax.swing.*;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
-import java.awt.image.BufferedImage;
-import java.util.ArrayList;
-import java.util.Set;
 import java.util.concurrent.*;
-import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
-class Canvas extends JPanel {
-    final int width = 1280;
-    final int height = 720;
-    private final List<Particle> particles = new ArrayList<>();
-    private final Object particlesLock = new Object();
+class Canvas extends JPanel implements SimulationListener {
+    private static final long serialVersionUID = 1L;
+
+    final int width;
+    final int height;
+    private final SimulationEngine engine;
     private final JLabel fpsLabel;
     private final JLabel particlesLabel;
     private final JLabel spritePositionLabel;
+    private final JLabel qualityLabel;
     private int framesCounted = 0;
     private long lastFpsUpdateTime = System.nanoTime();
-    private final BufferedImage offscreenImage;
-    private final ForkJoinPool physicsThreadPool = new ForkJoinPool();
+    private final ExplorerRenderer explorerRenderer;
     private final ForkJoinPool renderingThreadPool = new ForkJoinPool();
-    private boolean explorerMode = false;
-    private Point spritePosition = null;
-    private final Set<Integer> pressedKeys = ConcurrentHashMap.newKeySet();
-
-    public Canvas(JLabel fpsLabel, JLabel particlesLabel, JLabel spritePositionLabel) {
+    private final RenderPipeline renderPipeline;
+    private final QualityGovernor governor;
+    private final ActiveRenderSurface activeSurface;
+    private final Sprite sprite;
+    private volatile boolean explorerMode = false;
+    private final FrameMetrics metrics;
+    private final AtomicLong repaintRequestedAt = new AtomicLong();
+
+    public Canvas(SimulationEngine engine, JLabel fpsLabel, JLabel particlesLabel, JLabel spritePositionLabel, JLabel qualityLabel) {
+        this.engine = engine;
+        this.width = engine.width;
+        this.height = engine.height;
+        this.metrics = engine.getMetrics();
         this.fpsLabel = fpsLabel;
         this.particlesLabel = particlesLabel;
         this.spritePositionLabel = spritePositionLabel;
+        this.qualityLabel = qualityLabel;
+        this.sprite = engine.getSprite();
         setPreferredSize(new Dimension(width, height));
-        offscreenImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        explorerRenderer = new ExplorerRenderer(width, height);
+        renderPipeline = new RenderPipeline(engine, renderingThreadPool, this::renderFrame, this::frameRendered);
+        if (Constants.QUALITY_GOVERNOR) {
+            governor = new QualityGovernor(engine::getRecentStepNanos, renderPipeline::getRecentRenderNanos,
+                    Constants.PHYSICS_HZ / (double) Constants.TARGET_FPS, this::qualityChanged);
+            qualityLabel.setText("Quality: " + governor.getLevel().label);
+        } else {
+            governor = null;
+            qualityLabel.setText("Quality: Full (fixed)");
+        }
+        if ("active".equals(Constants.RENDER_BACKEND)) {
+            activeSurface = new ActiveRenderSurface(width, height, () -> renderPipeline.latest().image, this::updateFPS, metrics);
+            setLayout(new BorderLayout());
+            add(activeSurface, BorderLayout.CENTER);
+        } else {
+            activeSurface = null;
+        }
         setFocusable(true);
         requestFocusInWindow();
         setupKeyListeners();
+        engine.addListener(this);
     }
 
     private void setupKeyListeners() {
-        addKeyListener(new KeyAdapter() {
+        KeyAdapter keyAdapter = new KeyAdapter() {
             @Override
             public void keyPressed(KeyEvent e) {
                 if (!explorerMode) return;
-                pressedKeys.add(e.getKeyCode());
+                sprite.press(direction(e.getKeyCode()));
             }
 
             @Override
             public void keyReleased(KeyEvent e) {
                 if (!explorerMode) return;
-                pressedKeys.remove(e.getKeyCode());
+                sprite.release(direction(e.getKeyCode()));
             }
-        });
+        };
+        addKeyListener(keyAdapter);
+        if (activeSurface != null) {
+            activeSurface.addKeyListener(keyAdapter);
+        }
     }
 
-    private void updateSpritePosition() {
-        if (!explorerMode) return;
+    private Component focusTarget() {
+        return activeSurface != null ? activeSurface : this;
+    }
 
-        int movementSpeed = 1;
-        if (pressedKeys.contains(KeyEvent.VK_W)) spritePosition.y = Math.min(height, spritePosition.y + movementSpeed);
-        if (pressedKeys.contains(KeyEvent.VK_S)) spritePosition.y = Math.max(0, spritePosition.y - movementSpeed);
-        if (pressedKeys.contains(KeyEvent.VK_A)) spritePosition.x = Math.max(0, spritePosition.x - movementSpeed);
-        if (pressedKeys.contains(KeyEvent.VK_D)) spritePosition.x = Math.min(width, spritePosition.x + movementSpeed);
+    private static int direction(int keyCode) {
+        switch (keyCode) {
+            case KeyEvent.VK_W: return Sprite.UP;
+            case KeyEvent.VK_S: return Sprite.DOWN;
+            case KeyEvent.VK_A: return Sprite.LEFT;
+            case KeyEvent.VK_D: return Sprite.RIGHT;
+            default: return 0;
+        }
+    }
 
-        SwingUtilities.invokeLater(() -> spritePositionLabel.setText("Sprite Position: " + getSpritePositionAsString()));
+    @Override
+    public void spriteMoved(Point position) {
+        String text = String.format("Sprite Position: (%d, %d)", position.x, position.y);
+        SwingUtilities.invokeLater(() -> spritePositionLabel.setText(text));
     }
 
-    public void addParticle(Particle particle) {
-        synchronized (particlesLock) {
-            particles.add(particle);
-            SwingUtilities.invokeLater(() -> {
-                if (particlesLabel != null) {
-                    particlesLabel.setText("Particles: " + particles.size());
-                }
-            });
+    @Override
+    public void frameReady() {
+        if (governor == null || governor.frameReady()) {
+            renderPipeline.requestFrame();
         }
     }
 
-    public void startSimulation() {
-        new Thread(() -> {
-            while (true) {
-                long startTime = System.nanoTime();
-                updateParticles(Constants.TIME_STEP);
-                SwingUtilities.invokeLater(this::repaint);
+    private void qualityChanged(QualityGovernor.Level level) {
+        engine.setLazyOffscreen(Constants.LAZY_OFFSCREEN && level.lazyOffscreen);
+        SwingUtilities.invokeLater(() -> qualityLabel.setText("Quality: " + level.label));
+    }
 
-                try {
-                    long sleepTime = (Constants.OPTIMAL_TIME - (System.nanoTime() - startTime)) / 1000000;
-                    if (sleepTime > 0) {
-                        Thread.sleep(sleepTime);
-                    }
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                }
-            }
-        }).start();
+    private void renderFrame(RenderPipeline.RenderTarget target, ParticleFrame frame, double alpha) {
+        QualityGovernor.Level level = governor != null ? governor.getLevel() : QualityGovernor.Level.FULL;
+        Point spritePosition = sprite.getPosition();
+        if (explorerMode && spritePosition != null) {
+            Graphics2D g2d = target.image.createGraphics();
+            explorerRenderer.render(g2d, frame, alpha, spritePosition, getBackground());
+            g2d.dispose();
+        } else if (level.density || frame.count >= Constants.DENSITY_THRESHOLD) {
+            target.densityRasterizer.render(frame, alpha, getBackground().getRGB(), renderingThreadPool);
+        } else {
+            target.rasterizer.render(frame, alpha, getBackground().getRGB(), Color.BLACK.getRGB(), level.points, renderingThreadPool);
+        }
     }
 
-    private void updateParticles(double deltaTime) {
-        List<Particle> particlesSnapshot;
-        synchronized (particlesLock) {
-            particlesSnapshot = new ArrayList<>(particles);
+    private void frameRendered() {
+        if (activeSurface != null) {
+            activeSurface.frameAvailable();
+            return;
         }
-        physicsThreadPool.submit(() -> particlesSnapshot.parallelStream().forEach(particle -> {
-            particle.updatePosition(deltaTime);
-            particle.handleWallCollision(width, height);
-        })).join();
+        repaintRequestedAt.compareAndSet(0, System.nanoTime());
+        SwingUtilities.invokeLater(this::repaint);
     }
 
     @Override
-    protected void paintComponent(Graphics g) {
-        super.paintComponent(g);
-        updateSpritePosition();
+    public void particleCountChanged(int count) {
+        SwingUtilities.invokeLater(() -> {
+            if (particlesLabel != null) {
+                particlesLabel.setText("Particles: " + count);
+            }
+        });
+    }
 
-        List<Particle> particlesSnapshot;
-        synchronized (particlesLock) {
-            particlesSnapshot = new ArrayList<>(particles);
+    @Override
+    protected void paintComponent(Graphics g) {
+        long paintStart = System.nanoTime();
+        long requestedAt = repaintRequestedAt.getAndSet(0);
+        if (requestedAt != 0) {
+            metrics.record(FrameMetrics.Phase.EDT_LATENCY, paintStart - requestedAt);
         }
 
-        Graphics2D g2d = offscreenImage.createGraphics();
-        g2d.setColor(getBackground());
-        g2d.fillRect(0, 0, width, height);
-
-        if (explorerMode) {
-            renderExplorerMode(g2d, particlesSnapshot);
-        } else {
-            renderingThreadPool.submit(() -> particlesSnapshot.parallelStream().forEach(particle -> {
-                int drawY = height - particle.position.y - 5;
-                g2d.setColor(Color.BLACK);
-                g2d.fillOval(particle.position.x, drawY, 5, 5);
-            })).join();
-        }
+        super.paintComponent(g);
+        if (activeSurface != null) return;
 
-        g2d.dispose();
-        g.drawImage(offscreenImage, 0, 0, this);
+        long blitStart = System.nanoTime();
+        g.drawImage(renderPipeline.latest().image, 0, 0, this);
+        metrics.record(FrameMetrics.Phase.BLIT, System.nanoTime() - blitStart);
 
         g.setColor(Color.BLACK);
         g.drawRect(0, 0, width, height);
@@ -138,133 +166,56 @@ class Canvas extends JPanel {
         updateFPS();
     }
 
-    private void renderExplorerMode(Graphics2D g2d, List<Particle> particlesSnapshot) {
-        int gridWidth = 33;
-        int gridHeight = 19;
-        int cellWidth = width / gridWidth;
-        int cellHeight = height / gridHeight;
-
-        int viewportX = spritePosition.x - gridWidth / 2;
-        int viewportY = height - spritePosition.y - gridHeight / 2;
-
-        if (viewportX <= 0) {
-            g2d.setColor(Color.BLACK);
-            g2d.fillRect(0, 0, Math.abs(viewportX) * cellWidth, height);
-        }
-        if (viewportY <= 0) {
-            g2d.setColor(Color.BLACK);
-            g2d.fillRect(0, 0, width, Math.abs(viewportY) * cellHeight);
-        }
-        if (viewportX + gridWidth >= width) {
-            g2d.setColor(Color.BLACK);
-            int overflowWidth = (viewportX + gridWidth - width) * cellWidth - 12;
-            g2d.fillRect(width - overflowWidth, 0, overflowWidth, height);
-        }
-        if (viewportY + gridHeight >= height) {
-            g2d.setColor(Color.BLACK);
-            int overflowHeight = (viewportY + gridHeight - height) * cellHeight - 20;
-            g2d.fillRect(0, height - overflowHeight, width, overflowHeight);
-        }
-
-        viewportX = Math.max(0, Math.min(viewportX, width - gridWidth));
-        viewportY = Math.max(0, Math.min(viewportY, height - gridHeight));
-
-        for (Particle particle : particlesSnapshot) {
-            int relativeX = particle.position.x - viewportX;
-            int relativeY = height - particle.position.y - viewportY;
-
-            if (relativeX >= 0 && relativeX < gridWidth && relativeY >= 0 && relativeY < gridHeight) {
-                int drawX = relativeX * cellWidth;
-                int drawY = relativeY * cellHeight;
-                g2d.setColor(Color.BLACK);
-                g2d.fillRect(drawX, drawY, cellWidth, cellHeight);
-            }
-        }
-
-        int spriteScreenX = (gridWidth / 2) * cellWidth;
-        int spriteScreenY = (gridHeight / 2) * cellHeight;
-        g2d.setColor(Color.RED);
-        g2d.fillRect(spriteScreenX, spriteScreenY, cellWidth, cellHeight);
-    }
-
-
     private void updateFPS() {
         long currentTime = System.nanoTime();
         framesCounted++;
         if ((currentTime - lastFpsUpdateTime) >= 500_000_000L) {
             double elapsedTimeInSeconds = (currentTime - lastFpsUpdateTime) / 1_000_000_000.0;
             double fps = framesCounted / elapsedTimeInSeconds;
-            fpsLabel.setText(String.format("FPS: %.2f", fps));
+            String text = String.format("FPS: %.2f", fps);
+            if (SwingUtilities.isEventDispatchThread()) {
+                fpsLabel.setText(text);
+            } else {
+                SwingUtilities.invokeLater(() -> fpsLabel.setText(text));
+            }
             framesCounted = 0;
             lastFpsUpdateTime = currentTime;
         }
     }
 
-    public void addParticlesBetweenPoints(int n, Point start, Point end, double angle, double velocity) {
-        if (n <= 0) return;
-        if (n == 1) {
-            addParticle(new Particle(start.x, start.y, angle, velocity));
-            return;
-        }
-        for (int i = 0; i < n; i++) {
-            double ratio = (double) i / (n - 1);
-            int x = start.x + (int) ((end.x - start.x) * ratio);
-            int y = start.y + (int) ((end.y - start.y) * ratio);
-            addParticle(new Particle(x, y, angle, velocity));
-        }
-    }
-
-    public void addParticlesVaryingAngles(int n, Point start, double startAngle, double endAngle, double velocity) {
-        if (n <= 1) {
-            addParticle(new Particle(start.x, start.y, startAngle, velocity));
-            return;
-        }
-
-        for (int i = 0; i < n; i++) {
-            double angleIncrement = (endAngle - startAngle) / (n - 1);
-            double angle = startAngle + (angleIncrement * i);
-            addParticle(new Particle(start.x, start.y, angle, velocity));
-        }
-    }
-
-    public void addParticlesVaryingVelocities(int n, Point start, double angle, double startVelocity, double endVelocity) {
-        if (n <= 1) {
-            addParticle(new Particle(start.x, start.y, angle, startVelocity));
-            return;
-        }
-
-        for (int i = 0; i < n; i++) {
-            double velocityIncrement = (endVelocity - startVelocity) / (n - 1);
-            double velocity = startVelocity + (velocityIncrement * i);
-            addParticle(new Particle(start.x, start.y, angle, velocity));
-        }
-    }
-
     public void enterExplorerMode(int x, int y) {
         explorerMode = true;
-        spritePosition = new Point(x, y);
-        requestFocus();
+        engine.setExplorerMode(true);
+        sprite.moveTo(x, y);
+        sprite.setActive(true);
+        focusTarget().requestFocus();
         repaint();
     }
 
     public void enterExplorerModeAtLastPosition() {
-        if (spritePosition != null) {
+        if (sprite.getPosition() != null) {
             explorerMode = true;
-            requestFocus();
+            engine.setExplorerMode(true);
+            sprite.setActive(true);
+            focusTarget().requestFocus();
             repaint();
         }
     }
 
     public void exitExplorerMode() {
         explorerMode = false;
+        sprite.setActive(false);
+        sprite.releaseAll();
+        engine.setExplorerMode(false);
         repaint();
     }
 
     public Point getSpritePosition() {
-        return spritePosition;
+        return sprite.getPosition();
     }
 
     public String getSpritePositionAsString() {
+        Point spritePosition = sprite.getPosition();
         if (spritePosition != null) {
             return String.format("(%d, %d)", spritePosition.x, spritePosition.y);
         }
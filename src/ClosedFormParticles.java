@@ -0,0 +1,391 @@
+import java.util.Arrays;
+
+class ClosedFormParticles {
+    private static final int VIEWPORT_MARGIN = 16;
+    private static final int WAKE_SLOTS = 512;
+    private static final int ROUNDING_SLACK = 2;
+    private static final double SOLVABLE_STEP = 1.5;
+    private static final double MAX_CONTACT_TICKS = 1e15;
+    private static final long NO_CONTACT = Long.MAX_VALUE;
+
+    // Per-particle state is interleaved so that evaluating one particle touches a few cache lines.
+    private static final int LAST_TICK = 0;
+    private static final int SOLVED = 1;
+    private static final int ORIGIN_TICK = 2;
+    private static final int CONTACT = 4;
+    private static final int TICK_STRIDE = 6;
+    private static final int ORIGIN = 0;
+    private static final int VELOCITY = 2;
+    private static final int MOTION_STRIDE = 4;
+    private static final int POSITION = 0;
+    private static final int PREVIOUS = 2;
+    private static final int POSITION_STRIDE = 4;
+
+    private final int width;
+    private final int height;
+    private final double timeStep;
+    private final double viewportStep;
+    private long[] ticks = new long[0];
+    private double[] motion = new double[0];
+    private int[] positions = new int[0];
+    private int[] wakeSlotOf = new int[0];
+    private int[] wakeIndexOf = new int[0];
+    private final int[][] wakeSlots = new int[WAKE_SLOTS][];
+    private final int[] wakeCounts = new int[WAKE_SLOTS];
+    private int size = 0;
+    private long lastCaptureTick = Long.MIN_VALUE;
+    private int lastViewMinX;
+    private int lastViewMinY;
+    private int evaluated = 0;
+
+    public ClosedFormParticles(int width, int height, double timeStep, double viewportSpeed) {
+        this.width = width;
+        this.height = height;
+        this.timeStep = timeStep;
+        this.viewportStep = viewportSpeed * timeStep;
+        for (int slot = 0; slot < WAKE_SLOTS; slot++) {
+            wakeSlots[slot] = new int[16];
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void load(ParticleStore store, long tick, PhysicsWorkers workers) {
+        size = 0;
+        ensureCapacity(store.size());
+        int count = store.size();
+        workers.run(count, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                set(i, store.x[i], store.y[i], store.previousX[i], store.previousY[i], store.accumulatedX[i],
+                        store.accumulatedY[i], store.velocityX[i], store.velocityY[i], tick);
+            }
+        });
+        size = count;
+        wakeAll(tick);
+        lastCaptureTick = Long.MIN_VALUE;
+    }
+
+    public void add(ParticleBatch batch, long tick) {
+        int n = batch.size;
+        ensureCapacity(size + n);
+        for (int k = 0; k < n; k++) {
+            int i = size + k;
+            set(i, batch.x[k], batch.y[k], batch.x[k], batch.y[k], 0.0, 0.0, batch.velocityX[k], batch.velocityY[k], tick);
+            schedule(i, tick + 1);
+        }
+        size += n;
+    }
+
+    public void store(ParticleStore store, long tick, PhysicsWorkers workers) {
+        workers.run(size, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                advance(i, tick);
+                int p = i * POSITION_STRIDE;
+                int m = i * MOTION_STRIDE;
+                store.x[i] = positions[p + POSITION];
+                store.y[i] = positions[p + POSITION + 1];
+                store.previousX[i] = positions[p + PREVIOUS];
+                store.previousY[i] = positions[p + PREVIOUS + 1];
+                store.velocityX[i] = motion[m + VELOCITY];
+                store.velocityY[i] = motion[m + VELOCITY + 1];
+                if (ticks[i * TICK_STRIDE + SOLVED] != 0) {
+                    store.accumulatedX[i] = settle(i, 0, tick, width) - store.x[i];
+                    store.accumulatedY[i] = settle(i, 1, tick, height) - store.y[i];
+                } else {
+                    store.accumulatedX[i] = motion[m + ORIGIN];
+                    store.accumulatedY[i] = motion[m + ORIGIN + 1];
+                }
+            }
+        });
+    }
+
+    public void removeAt(int i) {
+        unschedule(i);
+        int last = --size;
+        if (i == last) return;
+
+        System.arraycopy(ticks, last * TICK_STRIDE, ticks, i * TICK_STRIDE, TICK_STRIDE);
+        System.arraycopy(motion, last * MOTION_STRIDE, motion, i * MOTION_STRIDE, MOTION_STRIDE);
+        System.arraycopy(positions, last * POSITION_STRIDE, positions, i * POSITION_STRIDE, POSITION_STRIDE);
+        wakeSlotOf[i] = wakeSlotOf[last];
+        wakeIndexOf[i] = wakeIndexOf[last];
+        wakeSlots[wakeSlotOf[i]][wakeIndexOf[i]] = i;
+    }
+
+    public void clear() {
+        size = 0;
+        Arrays.fill(wakeCounts, 0);
+    }
+
+    public void captureViewport(ParticleFrame frame, long tick, int viewMinX, int viewMinY, int viewMaxX, int viewMaxY) {
+        int minX = viewMinX - VIEWPORT_MARGIN;
+        int minY = viewMinY - VIEWPORT_MARGIN;
+        int maxX = viewMaxX + VIEWPORT_MARGIN;
+        int maxY = viewMaxY + VIEWPORT_MARGIN;
+        int maxViewportShift = (int) Math.ceil(viewportStep);
+        if (lastCaptureTick != tick - 1 || Math.abs(viewMinX - lastViewMinX) > maxViewportShift
+                || Math.abs(viewMinY - lastViewMinY) > maxViewportShift) {
+            wakeAll(tick);
+        }
+        lastCaptureTick = tick;
+        lastViewMinX = viewMinX;
+        lastViewMinY = viewMinY;
+
+        int slot = (int) (tick % WAKE_SLOTS);
+        int[] due = wakeSlots[slot];
+        int dueCount = wakeCounts[slot];
+        wakeCounts[slot] = 0;
+
+        frame.ensureCapacity(dueCount);
+        int count = 0;
+        for (int k = 0; k < dueCount; k++) {
+            int i = due[k];
+            advance(i, tick);
+            int p = i * POSITION_STRIDE;
+            int x = positions[p + POSITION];
+            int y = positions[p + POSITION + 1];
+            int distance = Math.max(Math.max(minX - x, x - maxX), Math.max(minY - y, y - maxY));
+            if (distance <= 0) {
+                frame.x[count] = x;
+                frame.y[count] = y;
+                frame.previousX[count] = positions[p + PREVIOUS];
+                frame.previousY[count] = positions[p + PREVIOUS + 1];
+                count++;
+                schedule(i, tick + 1);
+            } else {
+                double velocityX = motion[i * MOTION_STRIDE + VELOCITY];
+                double velocityY = motion[i * MOTION_STRIDE + VELOCITY + 1];
+                double reach = Math.sqrt(velocityX * velocityX + velocityY * velocityY) * timeStep + viewportStep;
+                long delay = (long) ((distance - ROUNDING_SLACK) / reach);
+                schedule(i, tick + Math.max(1, Math.min(WAKE_SLOTS - 1, delay)));
+            }
+        }
+        evaluated = dueCount;
+        frame.count = count;
+        frame.tick = tick;
+        frame.capturedAt = System.nanoTime();
+        frame.indexed = false;
+    }
+
+    public int getEvaluatedCount() {
+        return evaluated;
+    }
+
+    public int positionX(int i, long tick) {
+        advance(i, tick);
+        return positions[i * POSITION_STRIDE + POSITION];
+    }
+
+    public int positionY(int i, long tick) {
+        advance(i, tick);
+        return positions[i * POSITION_STRIDE + POSITION + 1];
+    }
+
+    private void set(int i, int x, int y, int previousX, int previousY, double remainderX, double remainderY,
+                     double velocityX, double velocityY, long tick) {
+        int p = i * POSITION_STRIDE;
+        positions[p + POSITION] = x;
+        positions[p + POSITION + 1] = y;
+        positions[p + PREVIOUS] = previousX;
+        positions[p + PREVIOUS + 1] = previousY;
+        int m = i * MOTION_STRIDE;
+        motion[m + ORIGIN] = remainderX;
+        motion[m + ORIGIN + 1] = remainderY;
+        motion[m + VELOCITY] = velocityX;
+        motion[m + VELOCITY + 1] = velocityY;
+        int t = i * TICK_STRIDE;
+        ticks[t + LAST_TICK] = tick;
+        ticks[t + SOLVED] = 0;
+        trySolve(i);
+    }
+
+    // Brings particle i forward to tick. Unsolved particles are stepped exactly like ParticleStore.update,
+    // solved ones are evaluated on their current straight-line segment.
+    private void advance(int i, long tick) {
+        int t = i * TICK_STRIDE;
+        while (ticks[t + SOLVED] == 0 && ticks[t + LAST_TICK] < tick) {
+            step(i);
+            ticks[t + LAST_TICK]++;
+            trySolve(i);
+        }
+        if (ticks[t + LAST_TICK] >= tick) return;
+
+        int p = i * POSITION_STRIDE;
+        if (ticks[t + LAST_TICK] < tick - 1) {
+            positions[p + POSITION] = (int) Math.round(settle(i, 0, tick - 1, width));
+            positions[p + POSITION + 1] = (int) Math.round(settle(i, 1, tick - 1, height));
+        }
+        positions[p + PREVIOUS] = positions[p + POSITION];
+        positions[p + PREVIOUS + 1] = positions[p + POSITION + 1];
+        positions[p + POSITION] = (int) Math.round(settle(i, 0, tick, width));
+        positions[p + POSITION + 1] = (int) Math.round(settle(i, 1, tick, height));
+        ticks[t + LAST_TICK] = tick;
+    }
+
+    private void step(int i) {
+        int p = i * POSITION_STRIDE;
+        int m = i * MOTION_STRIDE;
+        int x = positions[p + POSITION];
+        int y = positions[p + POSITION + 1];
+        double velocityX = motion[m + VELOCITY];
+        double velocityY = motion[m + VELOCITY + 1];
+        positions[p + PREVIOUS] = x;
+        positions[p + PREVIOUS + 1] = y;
+
+        double accX = motion[m + ORIGIN] + velocityX * timeStep;
+        double accY = motion[m + ORIGIN + 1] + velocityY * timeStep;
+        if (Math.abs(accX) >= 1.0 || Math.abs(accY) >= 1.0) {
+            int stepX = (int) Math.round(accX);
+            int stepY = (int) Math.round(accY);
+            x += stepX;
+            y += stepY;
+            accX -= stepX;
+            accY -= stepY;
+        }
+
+        if (x <= 0) {
+            velocityX = -velocityX;
+            x = ParticleStore.WALL_BUFFER;
+        } else if (x + ParticleStore.PARTICLE_DIAMETER >= width) {
+            velocityX = -velocityX;
+            x = width - ParticleStore.PARTICLE_DIAMETER - ParticleStore.WALL_BUFFER;
+        }
+        if (y + ParticleStore.PARTICLE_DIAMETER >= height) {
+            velocityY = -velocityY;
+            y = height - ParticleStore.PARTICLE_DIAMETER - ParticleStore.WALL_BUFFER;
+        } else if (y <= 0) {
+            velocityY = -velocityY;
+            y = ParticleStore.WALL_BUFFER;
+        }
+
+        positions[p + POSITION] = x;
+        positions[p + POSITION + 1] = y;
+        motion[m + ORIGIN] = accX;
+        motion[m + ORIGIN + 1] = accY;
+        motion[m + VELOCITY] = velocityX;
+        motion[m + VELOCITY + 1] = velocityY;
+    }
+
+    // Once a particle moves at least 1.5px per tick on some axis and both remainders are below half a pixel,
+    // every later tick steps, so both coordinates stay at the rounded straight-line position between wall
+    // contacts, and each contact snaps to the wall buffer keeping the remainder.
+    private void trySolve(int i) {
+        int p = i * POSITION_STRIDE;
+        int m = i * MOTION_STRIDE;
+        int x = positions[p + POSITION];
+        int y = positions[p + POSITION + 1];
+        double remainderX = motion[m + ORIGIN];
+        double remainderY = motion[m + ORIGIN + 1];
+        double stepX = motion[m + VELOCITY] * timeStep;
+        double stepY = motion[m + VELOCITY + 1] * timeStep;
+        if (Math.max(Math.abs(stepX), Math.abs(stepY)) < SOLVABLE_STEP || !isSettled(remainderX) || !isSettled(remainderY)
+                || !isInside(x, width) || !isInside(y, height)) {
+            return;
+        }
+
+        int t = i * TICK_STRIDE;
+        long tick = ticks[t + LAST_TICK];
+        motion[m + ORIGIN] = x + remainderX;
+        motion[m + ORIGIN + 1] = y + remainderY;
+        ticks[t + ORIGIN_TICK] = tick;
+        ticks[t + ORIGIN_TICK + 1] = tick;
+        ticks[t + CONTACT] = contactTick(tick, motion[m + ORIGIN], stepX, width);
+        ticks[t + CONTACT + 1] = contactTick(tick, motion[m + ORIGIN + 1], stepY, height);
+        ticks[t + SOLVED] = 1;
+    }
+
+    private double settle(int i, int axis, long tick, int size) {
+        int t = i * TICK_STRIDE;
+        int m = i * MOTION_STRIDE;
+        double step = motion[m + VELOCITY + axis] * timeStep;
+        while (ticks[t + CONTACT + axis] <= tick) {
+            long contact = ticks[t + CONTACT + axis];
+            double exact = motion[m + ORIGIN + axis] + step * (contact - ticks[t + ORIGIN_TICK + axis]);
+            long rounded = Math.round(exact);
+            int wall = rounded <= 0 ? ParticleStore.WALL_BUFFER : size - ParticleStore.PARTICLE_DIAMETER - ParticleStore.WALL_BUFFER;
+            step = -step;
+            motion[m + ORIGIN + axis] = wall + (exact - rounded);
+            motion[m + VELOCITY + axis] = -motion[m + VELOCITY + axis];
+            ticks[t + ORIGIN_TICK + axis] = contact;
+            ticks[t + CONTACT + axis] = contactTick(contact, motion[m + ORIGIN + axis], step, size);
+        }
+        return motion[m + ORIGIN + axis] + step * (tick - ticks[t + ORIGIN_TICK + axis]);
+    }
+
+    private static long contactTick(long originTick, double origin, double step, int size) {
+        if (step == 0) return NO_CONTACT;
+
+        double target = step < 0 ? 0.5 : size - ParticleStore.PARTICLE_DIAMETER - 0.5;
+        double estimate = (target - origin) / step;
+        if (!(estimate < MAX_CONTACT_TICKS)) return NO_CONTACT;
+
+        long ticks = Math.max(1, (long) estimate);
+        while (ticks > 1 && touchesWall(origin + step * (ticks - 1), size)) {
+            ticks--;
+        }
+        while (!touchesWall(origin + step * ticks, size)) {
+            ticks++;
+        }
+        return originTick + ticks;
+    }
+
+    private static boolean touchesWall(double position, int size) {
+        long rounded = Math.round(position);
+        return rounded <= 0 || rounded + ParticleStore.PARTICLE_DIAMETER >= size;
+    }
+
+    private static boolean isSettled(double remainder) {
+        return remainder >= -0.5 && remainder < 0.5;
+    }
+
+    private static boolean isInside(int position, int size) {
+        return position > 0 && position + ParticleStore.PARTICLE_DIAMETER < size;
+    }
+
+    private void wakeAll(long tick) {
+        Arrays.fill(wakeCounts, 0);
+        int slot = (int) (tick % WAKE_SLOTS);
+        if (wakeSlots[slot].length < size) {
+            wakeSlots[slot] = new int[size];
+        }
+        for (int i = 0; i < size; i++) {
+            wakeSlots[slot][i] = i;
+            wakeSlotOf[i] = slot;
+            wakeIndexOf[i] = i;
+        }
+        wakeCounts[slot] = size;
+    }
+
+    private void schedule(int i, long tick) {
+        int slot = (int) (tick % WAKE_SLOTS);
+        int count = wakeCounts[slot];
+        if (count == wakeSlots[slot].length) {
+            wakeSlots[slot] = Arrays.copyOf(wakeSlots[slot], count * 2);
+        }
+        wakeSlots[slot][count] = i;
+        wakeCounts[slot] = count + 1;
+        wakeSlotOf[i] = slot;
+        wakeIndexOf[i] = count;
+    }
+
+    private void unschedule(int i) {
+        int slot = wakeSlotOf[i];
+        int last = --wakeCounts[slot];
+        int moved = wakeSlots[slot][last];
+        wakeSlots[slot][wakeIndexOf[i]] = moved;
+        wakeIndexOf[moved] = wakeIndexOf[i];
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (wakeSlotOf.length >= capacity) return;
+
+        int newCapacity = Math.max(capacity, wakeSlotOf.length + (wakeSlotOf.length >> 1));
+        ticks = Arrays.copyOf(ticks, newCapacity * TICK_STRIDE);
+        motion = Arrays.copyOf(motion, newCapacity * MOTION_STRIDE);
+        positions = Arrays.copyOf(positions, newCapacity * POSITION_STRIDE);
+        wakeSlotOf = Arrays.copyOf(wakeSlotOf, newCapacity);
+        wakeIndexOf = Arrays.copyOf(wakeIndexOf, newCapacity);
+    }
+}
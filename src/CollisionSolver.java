@@ -0,0 +1,177 @@
+import java.util.Arrays;
+
+class CollisionSolver {
+    private static final int CELL_SIZE = ParticleStore.PARTICLE_DIAMETER;
+    private static final int CONTACT_DISTANCE_SQUARED = ParticleStore.PARTICLE_DIAMETER * ParticleStore.PARTICLE_DIAMETER;
+    // A cell only fits a few separated particles; beyond that a pile-up would make the scan quadratic.
+    private static final int MAX_CANDIDATES_PER_CELL = 8;
+
+    private final int columns;
+    private final int rows;
+    private final int[] cellStart;
+    private int[][] partitionOffsets = new int[0][];
+    private long[] partitionPairs = new long[0];
+    private int[] cellOf = new int[0];
+    private int[] sorted = new int[0];
+    private int[] partner = new int[0];
+    private double[] newVelocityX = new double[0];
+    private double[] newVelocityY = new double[0];
+
+    public CollisionSolver(int worldWidth, int worldHeight) {
+        this.columns = (worldWidth + CELL_SIZE - 1) / CELL_SIZE;
+        this.rows = (worldHeight + CELL_SIZE - 1) / CELL_SIZE;
+        this.cellStart = new int[columns * rows + 1];
+    }
+
+    public long solve(ParticleStore store, PhysicsWorkers workers, FrameMetrics metrics) {
+        int count = store.size();
+        int partitions = workers.partitionCount(count);
+        ensureCapacity(store.capacity(), partitions);
+
+        long broadStart = System.nanoTime();
+        workers.run(count, (partition, from, to) -> countCells(store, partitionOffsets[partition], from, to));
+        computeOffsets(partitions, count);
+        workers.run(count, (partition, from, to) -> scatter(partitionOffsets[partition], from, to));
+
+        long narrowStart = System.nanoTime();
+        metrics.record(FrameMetrics.Phase.COLLISION_BROAD, narrowStart - broadStart);
+        workers.run(count, (partition, from, to) -> findPartners(store, from, to));
+        workers.run(count, (partition, from, to) -> partitionPairs[partition] = resolve(store, from, to));
+
+        double[] velocityX = store.velocityX;
+        double[] velocityY = store.velocityY;
+        store.velocityX = newVelocityX;
+        store.velocityY = newVelocityY;
+        newVelocityX = velocityX;
+        newVelocityY = velocityY;
+        metrics.record(FrameMetrics.Phase.COLLISION_NARROW, System.nanoTime() - narrowStart);
+
+        long pairs = 0;
+        for (int partition = 0; partition < partitions; partition++) {
+            pairs += partitionPairs[partition];
+        }
+        return pairs;
+    }
+
+    private void ensureCapacity(int capacity, int partitions) {
+        if (cellOf.length < capacity) {
+            cellOf = new int[capacity];
+            sorted = new int[capacity];
+            partner = new int[capacity];
+        }
+        if (newVelocityX.length != capacity) {
+            newVelocityX = new double[capacity];
+            newVelocityY = new double[capacity];
+        }
+        if (partitionOffsets.length < partitions) {
+            partitionOffsets = new int[partitions][];
+            for (int partition = 0; partition < partitions; partition++) {
+                partitionOffsets[partition] = new int[columns * rows];
+            }
+            partitionPairs = new long[partitions];
+        }
+    }
+
+    private void countCells(ParticleStore store, int[] counts, int from, int to) {
+        Arrays.fill(counts, 0);
+        int[] x = store.x;
+        int[] y = store.y;
+        for (int i = from; i < to; i++) {
+            int cell = row(y[i]) * columns + column(x[i]);
+            cellOf[i] = cell;
+            counts[cell]++;
+        }
+    }
+
+    private void computeOffsets(int partitions, int count) {
+        int running = 0;
+        for (int cell = 0; cell < columns * rows; cell++) {
+            cellStart[cell] = running;
+            for (int partition = 0; partition < partitions; partition++) {
+                int[] offsets = partitionOffsets[partition];
+                int cellCount = offsets[cell];
+                offsets[cell] = running;
+                running += cellCount;
+            }
+        }
+        cellStart[columns * rows] = count;
+    }
+
+    private void scatter(int[] offsets, int from, int to) {
+        for (int i = from; i < to; i++) {
+            sorted[offsets[cellOf[i]]++] = i;
+        }
+    }
+
+    private void findPartners(ParticleStore store, int from, int to) {
+        int[] x = store.x;
+        int[] y = store.y;
+        double[] velocityX = store.velocityX;
+        double[] velocityY = store.velocityY;
+
+        for (int i = from; i < to; i++) {
+            int xi = x[i];
+            int yi = y[i];
+            double vxi = velocityX[i];
+            double vyi = velocityY[i];
+            int nearest = -1;
+            int nearestDistanceSquared = CONTACT_DISTANCE_SQUARED;
+
+            int column = column(xi);
+            int row = row(yi);
+            int firstColumn = Math.max(0, column - 1);
+            int lastColumn = Math.min(columns - 1, column + 1);
+            for (int r = Math.max(0, row - 1); r <= Math.min(rows - 1, row + 1); r++) {
+                for (int cell = r * columns + firstColumn; cell <= r * columns + lastColumn; cell++) {
+                    int end = Math.min(cellStart[cell + 1], cellStart[cell] + MAX_CANDIDATES_PER_CELL);
+                    for (int k = cellStart[cell]; k < end; k++) {
+                        int j = sorted[k];
+                        int dx = x[j] - xi;
+                        int dy = y[j] - yi;
+                        int distanceSquared = dx * dx + dy * dy;
+                        if (distanceSquared > nearestDistanceSquared || distanceSquared == 0) continue;
+                        if (distanceSquared == nearestDistanceSquared && (nearest < 0 || j > nearest)) continue;
+                        if ((velocityX[j] - vxi) * dx + (velocityY[j] - vyi) * dy >= 0) continue;
+
+                        nearest = j;
+                        nearestDistanceSquared = distanceSquared;
+                    }
+                }
+            }
+            partner[i] = nearest;
+        }
+    }
+
+    private long resolve(ParticleStore store, int from, int to) {
+        int[] x = store.x;
+        int[] y = store.y;
+        double[] velocityX = store.velocityX;
+        double[] velocityY = store.velocityY;
+        long pairs = 0;
+
+        for (int i = from; i < to; i++) {
+            int j = partner[i];
+            if (j < 0 || partner[j] != i) {
+                newVelocityX[i] = velocityX[i];
+                newVelocityY[i] = velocityY[i];
+                continue;
+            }
+
+            int dx = x[j] - x[i];
+            int dy = y[j] - y[i];
+            double impulse = ((velocityX[j] - velocityX[i]) * dx + (velocityY[j] - velocityY[i]) * dy) / (dx * dx + dy * dy);
+            newVelocityX[i] = velocityX[i] + impulse * dx;
+            newVelocityY[i] = velocityY[i] + impulse * dy;
+            if (i < j) pairs++;
+        }
+        return pairs;
+    }
+
+    private int column(int x) {
+        return Math.max(0, Math.min(columns - 1, x / CELL_SIZE));
+    }
+
+    private int row(int y) {
+        return Math.max(0, Math.min(rows - 1, y / CELL_SIZE));
+    }
+}
@@ -2,4 +2,22 @@ public class Constants {
     public static final double TIME_STEP = 1.0 / 60.0;
     public static final int TARGET_FPS = 60;
     public static final long OPTIMAL_TIME = 1000000000 / TARGET_FPS;
+    public static final int PHYSICS_HZ = Integer.getInteger("simulator.physicsHz", TARGET_FPS);
+    public static final double PHYSICS_TIME_STEP = 1.0 / PHYSICS_HZ;
+    public static final long PHYSICS_STEP_NANOS = 1000000000L / PHYSICS_HZ;
+    public static final int MAX_CATCH_UP_STEPS = 5;
+    public static final int PHYSICS_WORKERS = Integer.getInteger("simulator.physicsWorkers", Runtime.getRuntime().availableProcessors());
+    public static final String PHYSICS_KERNEL = System.getProperty("simulator.physicsKernel", "scalar");
+    public static final int KEYFRAME_INTERVAL = Integer.getInteger("simulator.keyframeInterval", 600);
+    public static final int SPRITE_SPEED = Integer.getInteger("simulator.spriteSpeed", 60);
+    public static final String RENDER_BACKEND = System.getProperty("simulator.renderBackend", "swing");
+    public static final double PARTICLE_LIFETIME = Double.parseDouble(System.getProperty("simulator.particleLifetime", "0"));
+    public static final boolean QUALITY_GOVERNOR = Boolean.parseBoolean(System.getProperty("simulator.qualityGovernor", "true"));
+    public static final boolean LAZY_OFFSCREEN = Boolean.getBoolean("simulator.lazyOffscreen");
+    public static final boolean SHARDED = Boolean.getBoolean("simulator.sharded");
+    public static final int SHARDS = Integer.getInteger("simulator.shards", PHYSICS_WORKERS);
+    public static final boolean COLLISIONS = Boolean.getBoolean("simulator.collisions");
+    public static final boolean CLOSED_FORM_EXPLORER = Boolean.getBoolean("simulator.closedFormExplorer");
+    public static final int DENSITY_THRESHOLD = Integer.getInteger("simulator.densityThreshold", 300_000);
+    public static final int SEQUENTIAL_THRESHOLD = Integer.getInteger("simulator.sequentialThreshold", 20_000);
 }
\ No newline at end of file
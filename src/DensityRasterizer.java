@@ -0,0 +1,118 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+class DensityRasterizer {
+    private static final int PARTICLE_RADIUS = 2;
+    private static final int TILE_HEIGHT = 32;
+    private static final int CHUNK_SIZE = 1 << 16;
+    private static final int SATURATION = 16;
+
+    private final int[] pixels;
+    private final int[] counts;
+    private final int width;
+    private final int height;
+    private final int tileCount;
+    private final int[] ramp = new int[SATURATION + 1];
+    private int[] pixelOf = new int[0];
+    private int[] order = new int[0];
+
+    public DensityRasterizer(BufferedImage image) {
+        this.pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        this.width = image.getWidth();
+        this.height = image.getHeight();
+        this.counts = new int[width * height];
+        this.tileCount = (height + TILE_HEIGHT - 1) / TILE_HEIGHT;
+    }
+
+    public void render(ParticleFrame frame, double alpha, int background, ForkJoinPool pool) {
+        int count = frame.count;
+        if (pixelOf.length < count) {
+            pixelOf = new int[frame.x.length];
+            order = new int[frame.x.length];
+        }
+        if (ramp[SATURATION] == 0 || ramp[0] != background) {
+            buildRamp(background);
+        }
+
+        int chunks = (count + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        int[][] tileOffsets = new int[chunks][tileCount];
+        int[] tileStart = new int[tileCount + 1];
+
+        pool.submit(() -> {
+            IntStream.range(0, chunks).parallel().forEach(chunk -> binChunk(chunk, count, frame, alpha, tileOffsets[chunk]));
+
+            for (int tile = 0; tile < tileCount; tile++) {
+                int offset = tileStart[tile];
+                for (int chunk = 0; chunk < chunks; chunk++) {
+                    int chunkCount = tileOffsets[chunk][tile];
+                    tileOffsets[chunk][tile] = offset;
+                    offset += chunkCount;
+                }
+                tileStart[tile + 1] = offset;
+            }
+
+            IntStream.range(0, chunks).parallel().forEach(chunk -> scatterChunk(chunk, count, tileOffsets[chunk]));
+            IntStream.range(0, tileCount).parallel().forEach(tile -> renderTile(tile, tileStart[tile], tileStart[tile + 1]));
+        }).join();
+    }
+
+    private void binChunk(int chunk, int count, ParticleFrame frame, double alpha, int[] tileCounts) {
+        int from = chunk * CHUNK_SIZE;
+        int to = Math.min(count, from + CHUNK_SIZE);
+        for (int i = from; i < to; i++) {
+            int px = frame.interpolatedX(i, alpha) + PARTICLE_RADIUS;
+            int py = height - frame.interpolatedY(i, alpha) - PARTICLE_RADIUS - 1;
+            if (px < 0 || px >= width || py < 0 || py >= height) {
+                pixelOf[i] = -1;
+                continue;
+            }
+            pixelOf[i] = py * width + px;
+            tileCounts[py / TILE_HEIGHT]++;
+        }
+    }
+
+    private void scatterChunk(int chunk, int count, int[] tileCursor) {
+        int from = chunk * CHUNK_SIZE;
+        int to = Math.min(count, from + CHUNK_SIZE);
+        for (int i = from; i < to; i++) {
+            int pixel = pixelOf[i];
+            if (pixel < 0) continue;
+            order[tileCursor[pixel / width / TILE_HEIGHT]++] = pixel;
+        }
+    }
+
+    private void renderTile(int tile, int from, int to) {
+        int tileTop = tile * TILE_HEIGHT;
+        int tileBottom = Math.min(height, tileTop + TILE_HEIGHT);
+        int firstPixel = tileTop * width;
+        int lastPixel = tileBottom * width;
+
+        Arrays.fill(counts, firstPixel, lastPixel, 0);
+        for (int k = from; k < to; k++) {
+            counts[order[k]]++;
+        }
+        for (int pixel = firstPixel; pixel < lastPixel; pixel++) {
+            pixels[pixel] = ramp[Math.min(SATURATION, counts[pixel])];
+        }
+    }
+
+    private void buildRamp(int background) {
+        Color[] stops = {new Color(70, 110, 200), new Color(220, 40, 40), new Color(255, 220, 60)};
+        ramp[0] = background;
+        for (int count = 1; count <= SATURATION; count++) {
+            double level = Math.log(count) / Math.log(SATURATION) * (stops.length - 1);
+            int stop = Math.min(stops.length - 2, (int) level);
+            double t = level - stop;
+            Color from = stops[stop];
+            Color to = stops[stop + 1];
+            ramp[count] = new Color(
+                    (int) Math.round(from.getRed() + (to.getRed() - from.getRed()) * t),
+                    (int) Math.round(from.getGreen() + (to.getGreen() - from.getGreen()) * t),
+                    (int) Math.round(from.getBlue() + (to.getBlue() - from.getBlue()) * t)).getRGB();
+        }
+    }
+}
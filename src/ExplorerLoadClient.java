@@ -0,0 +1,179 @@
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Random;
+
+public class ExplorerLoadClient {
+    private static final String USAGE = "Usage: ExplorerLoadClient <port> <clients> <seconds>";
+    private static final double SUSTAINED_FRACTION = 0.95;
+    private static final long WARMUP_NANOS = 1_000_000_000L;
+
+    private final Client[] clients;
+    private final Selector selector;
+    private final Random random = new Random();
+    private long bytesReceived = 0;
+    private long occupiedCells = 0;
+
+    public ExplorerLoadClient(int port, int clientCount) throws IOException {
+        selector = Selector.open();
+        clients = new Client[clientCount];
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+        for (int i = 0; i < clientCount; i++) {
+            SocketChannel channel = SocketChannel.open(address);
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            clients[i] = new Client(channel, random.nextInt(1280), random.nextInt(720), random.nextDouble() * 2 * Math.PI);
+            channel.register(selector, SelectionKey.OP_READ, clients[i]);
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 3) {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+
+        try {
+            int port = Integer.parseInt(args[0]);
+            int clientCount = Integer.parseInt(args[1]);
+            int seconds = Integer.parseInt(args[2]);
+            if (clientCount < 1) throw new IllegalArgumentException("Number of clients must be at least 1.");
+            if (seconds < 1) throw new IllegalArgumentException("Duration must be at least 1 second.");
+
+            ExplorerLoadClient loadClient = new ExplorerLoadClient(port, clientCount);
+            loadClient.run(seconds * 1_000_000_000L);
+            loadClient.report(seconds);
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid input. Please enter valid numbers.");
+            System.err.println(USAGE);
+            System.exit(1);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(1);
+        } catch (IOException e) {
+            System.err.println("Load client failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    public void run(long durationNanos) throws IOException {
+        poll(System.nanoTime() + WARMUP_NANOS);
+        for (Client client : clients) {
+            client.frames = 0;
+        }
+        bytesReceived = 0;
+        occupiedCells = 0;
+
+        poll(System.nanoTime() + durationNanos);
+        for (Client client : clients) {
+            client.channel.close();
+        }
+        selector.close();
+    }
+
+    private void poll(long deadline) throws IOException {
+        while (System.nanoTime() - deadline < 0) {
+            selector.select(100);
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                if (key.isValid() && key.isReadable()) {
+                    read((Client) key.attachment(), key);
+                }
+            }
+        }
+    }
+
+    private void read(Client client, SelectionKey key) throws IOException {
+        int read = client.channel.read(client.in);
+        if (read < 0) {
+            key.cancel();
+            client.channel.close();
+            return;
+        }
+        bytesReceived += read;
+
+        ByteBuffer in = client.in;
+        in.flip();
+        boolean received = false;
+        while (in.remaining() >= ExplorerProtocol.LENGTH_BYTES) {
+            int length = in.getInt(in.position());
+            if (in.remaining() < ExplorerProtocol.LENGTH_BYTES + length) break;
+            in.position(in.position() + ExplorerProtocol.LENGTH_BYTES);
+            ExplorerProtocol.readFrame(in, client.cells);
+            client.frames++;
+            received = true;
+        }
+        in.compact();
+
+        if (received) {
+            for (long word : client.cells) {
+                occupiedCells += Long.bitCount(word);
+            }
+            client.move(random);
+            client.out.clear();
+            ExplorerProtocol.writePosition(client.out, (int) client.x, (int) client.y);
+            client.out.flip();
+            client.channel.write(client.out);
+        }
+    }
+
+    public void report(int seconds) {
+        double[] rates = new double[clients.length];
+        long frames = 0;
+        int sustained = 0;
+        for (int i = 0; i < clients.length; i++) {
+            rates[i] = (double) clients[i].frames / seconds;
+            frames += clients[i].frames;
+            if (rates[i] >= Constants.TARGET_FPS * SUSTAINED_FRACTION) sustained++;
+        }
+        Arrays.sort(rates);
+
+        System.out.printf("Clients: %d%n", clients.length);
+        System.out.printf("Frames/s per client: min %.1f, p50 %.1f, max %.1f%n",
+                rates[0], rates[rates.length / 2], rates[rates.length - 1]);
+        System.out.printf("Clients at >= %.0f%% of %d FPS: %d%n", SUSTAINED_FRACTION * 100, Constants.TARGET_FPS, sustained);
+        System.out.printf("Received: %.1f KiB/s, %.1f bytes/frame, %.1f occupied cells/frame%n",
+                bytesReceived / 1024.0 / seconds,
+                frames == 0 ? 0.0 : (double) bytesReceived / frames,
+                frames == 0 ? 0.0 : (double) occupiedCells / frames);
+    }
+
+    private static final class Client {
+        final SocketChannel channel;
+        final ByteBuffer in = ByteBuffer.allocate(ExplorerProtocol.MAX_FRAME_BYTES * 4);
+        final ByteBuffer out = ByteBuffer.allocate(ExplorerProtocol.POSITION_BYTES);
+        final long[] cells = new long[ExplorerProtocol.WORDS];
+        double x;
+        double y;
+        double heading;
+        long frames = 0;
+
+        Client(SocketChannel channel, double x, double y, double heading) {
+            this.channel = channel;
+            this.x = x;
+            this.y = y;
+            this.heading = heading;
+        }
+
+        void move(Random random) {
+            heading += (random.nextDouble() - 0.5) * 0.2;
+            double distance = Constants.SPRITE_SPEED * Constants.TIME_STEP;
+            x += Math.cos(heading) * distance;
+            y += Math.sin(heading) * distance;
+            if (x < 0 || x > 1280) heading = Math.PI - heading;
+            if (y < 0 || y > 720) heading = -heading;
+            x = Math.max(0, Math.min(1280, x));
+            y = Math.max(0, Math.min(720, y));
+        }
+    }
+}
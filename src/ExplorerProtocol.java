@@ -0,0 +1,96 @@
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+class ExplorerProtocol {
+    static final int GRID_WIDTH = ExplorerRenderer.GRID_WIDTH;
+    static final int GRID_HEIGHT = ExplorerRenderer.GRID_HEIGHT;
+    static final int CELLS = GRID_WIDTH * GRID_HEIGHT;
+    static final int WORDS = (CELLS + Long.SIZE - 1) / Long.SIZE;
+
+    static final int FLAG_KEYFRAME = 1;
+    static final int LENGTH_BYTES = Integer.BYTES;
+    static final int HEADER_BYTES = Long.BYTES + Short.BYTES + Short.BYTES + Byte.BYTES + Short.BYTES;
+    static final int MAX_FRAME_BYTES = LENGTH_BYTES + HEADER_BYTES + CELLS * Short.BYTES;
+    static final int POSITION_BYTES = Integer.BYTES + Integer.BYTES;
+
+    private ExplorerProtocol() {
+    }
+
+    static int viewportX(int spriteX, int worldWidth) {
+        return Math.max(0, Math.min(spriteX - GRID_WIDTH / 2, worldWidth - GRID_WIDTH));
+    }
+
+    static int viewportY(int spriteY, int worldHeight) {
+        return Math.max(0, Math.min(worldHeight - spriteY - GRID_HEIGHT / 2, worldHeight - GRID_HEIGHT));
+    }
+
+    static void occupancy(ParticleFrame frame, int worldHeight, int viewportX, int viewportY, long[] cells) {
+        Arrays.fill(cells, 0L);
+        if (frame.indexed) {
+            int minY = worldHeight - viewportY - (GRID_HEIGHT - 1);
+            frame.grid.forEachInRect(viewportX, minY, viewportX + GRID_WIDTH - 1, worldHeight - viewportY,
+                    i -> mark(frame, i, worldHeight, viewportX, viewportY, cells));
+        } else {
+            for (int i = 0; i < frame.count; i++) {
+                mark(frame, i, worldHeight, viewportX, viewportY, cells);
+            }
+        }
+    }
+
+    private static void mark(ParticleFrame frame, int i, int worldHeight, int viewportX, int viewportY, long[] cells) {
+        int relativeX = frame.x[i] - viewportX;
+        int relativeY = worldHeight - frame.y[i] - viewportY;
+        if (relativeX >= 0 && relativeX < GRID_WIDTH && relativeY >= 0 && relativeY < GRID_HEIGHT) {
+            int cell = relativeY * GRID_WIDTH + relativeX;
+            cells[cell >>> 6] |= 1L << cell;
+        }
+    }
+
+    static int writeFrame(ByteBuffer out, long tick, int viewportX, int viewportY, boolean keyframe, long[] previous, long[] current) {
+        int lengthPosition = out.position();
+        out.putInt(0);
+        out.putLong(tick);
+        out.putShort((short) viewportX);
+        out.putShort((short) viewportY);
+        out.put((byte) (keyframe ? FLAG_KEYFRAME : 0));
+        int countPosition = out.position();
+        out.putShort((short) 0);
+
+        int toggles = 0;
+        for (int word = 0; word < WORDS; word++) {
+            long changed = keyframe ? current[word] : current[word] ^ previous[word];
+            while (changed != 0) {
+                int bit = Long.numberOfTrailingZeros(changed);
+                out.putShort((short) ((word << 6) + bit));
+                changed &= changed - 1;
+                toggles++;
+            }
+        }
+
+        out.putShort(countPosition, (short) toggles);
+        out.putInt(lengthPosition, out.position() - lengthPosition - LENGTH_BYTES);
+        return toggles;
+    }
+
+    static long readFrame(ByteBuffer in, long[] cells) {
+        long tick = in.getLong();
+        in.getShort();
+        in.getShort();
+        boolean keyframe = (in.get() & FLAG_KEYFRAME) != 0;
+        int toggles = in.getShort() & 0xFFFF;
+        if (keyframe) {
+            Arrays.fill(cells, 0L);
+        }
+        for (int i = 0; i < toggles; i++) {
+            int cell = in.getShort() & 0xFFFF;
+            if (cell >= CELLS) throw new IllegalStateException("Cell index out of range: " + cell);
+            cells[cell >>> 6] ^= 1L << cell;
+        }
+        return tick;
+    }
+
+    static void writePosition(ByteBuffer out, int x, int y) {
+        out.putInt(x);
+        out.putInt(y);
+    }
+}
@@ -0,0 +1,78 @@
+import java.awt.*;
+import java.util.function.IntConsumer;
+
+class ExplorerRenderer {
+    static final int GRID_WIDTH = 33;
+    static final int GRID_HEIGHT = 19;
+    private static final int INTERPOLATION_MARGIN = 16;
+
+    private final int width;
+    private final int height;
+
+    public ExplorerRenderer(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    public void render(Graphics2D g2d, ParticleFrame frame, double alpha, Point spritePosition, Color background) {
+        g2d.setColor(background);
+        g2d.fillRect(0, 0, width, height);
+
+        int cellWidth = width / GRID_WIDTH;
+        int cellHeight = height / GRID_HEIGHT;
+
+        int viewportX = spritePosition.x - GRID_WIDTH / 2;
+        int viewportY = height - spritePosition.y - GRID_HEIGHT / 2;
+
+        if (viewportX <= 0) {
+            g2d.setColor(Color.BLACK);
+            g2d.fillRect(0, 0, Math.abs(viewportX) * cellWidth, height);
+        }
+        if (viewportY <= 0) {
+            g2d.setColor(Color.BLACK);
+            g2d.fillRect(0, 0, width, Math.abs(viewportY) * cellHeight);
+        }
+        if (viewportX + GRID_WIDTH >= width) {
+            g2d.setColor(Color.BLACK);
+            int overflowWidth = (viewportX + GRID_WIDTH - width) * cellWidth - 12;
+            g2d.fillRect(width - overflowWidth, 0, overflowWidth, height);
+        }
+        if (viewportY + GRID_HEIGHT >= height) {
+            g2d.setColor(Color.BLACK);
+            int overflowHeight = (viewportY + GRID_HEIGHT - height) * cellHeight - 20;
+            g2d.fillRect(0, height - overflowHeight, width, overflowHeight);
+        }
+
+        viewportX = Math.max(0, Math.min(viewportX, width - GRID_WIDTH));
+        viewportY = Math.max(0, Math.min(viewportY, height - GRID_HEIGHT));
+
+        int originX = viewportX;
+        int originY = viewportY;
+        IntConsumer drawParticle = i -> {
+            int relativeX = frame.interpolatedX(i, alpha) - originX;
+            int relativeY = height - frame.interpolatedY(i, alpha) - originY;
+
+            if (relativeX >= 0 && relativeX < GRID_WIDTH && relativeY >= 0 && relativeY < GRID_HEIGHT) {
+                int drawX = relativeX * cellWidth;
+                int drawY = relativeY * cellHeight;
+                g2d.setColor(Color.BLACK);
+                g2d.fillRect(drawX, drawY, cellWidth, cellHeight);
+            }
+        };
+
+        if (frame.indexed) {
+            int minY = height - viewportY - (GRID_HEIGHT - 1);
+            frame.grid.forEachInRect(viewportX - INTERPOLATION_MARGIN, minY - INTERPOLATION_MARGIN,
+                    viewportX + GRID_WIDTH - 1 + INTERPOLATION_MARGIN, height - viewportY + INTERPOLATION_MARGIN, drawParticle);
+        } else {
+            for (int i = 0; i < frame.count; i++) {
+                drawParticle.accept(i);
+            }
+        }
+
+        int spriteScreenX = (GRID_WIDTH / 2) * cellWidth;
+        int spriteScreenY = (GRID_HEIGHT / 2) * cellHeight;
+        g2d.setColor(Color.RED);
+        g2d.fillRect(spriteScreenX, spriteScreenY, cellWidth, cellHeight);
+    }
+}
@@ -0,0 +1,220 @@
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class ExplorerServer implements SimulationListener {
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: ExplorerServer <port> [<spec> ...]",
+            "  specs are the same as for HeadlessSimulator");
+    private static final long REPORT_INTERVAL_NANOS = 1_000_000_000L;
+    private static final int ACCEPT_BACKLOG = 4096;
+
+    private final SimulationEngine engine;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final List<Session> sessions = new ArrayList<>();
+    private final AtomicBoolean framePending = new AtomicBoolean(false);
+    private long lastBroadcastTick = -1;
+    private long framesSent = 0;
+    private long framesSkipped = 0;
+    private long bytesSent = 0;
+
+    public ExplorerServer(SimulationEngine engine, int port) throws IOException {
+        this.engine = engine;
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), ACCEPT_BACKLOG);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        engine.setSpatialIndexing(true);
+        engine.addListener(this);
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+
+        try {
+            int port = Integer.parseInt(args[0]);
+            SimulationEngine engine = new SimulationEngine(1280, 720);
+            for (int i = 1; i < args.length; i++) {
+                HeadlessSimulator.spawn(engine, args[i]);
+            }
+            engine.awaitPendingSpawns();
+
+            ExplorerServer server = new ExplorerServer(engine, port);
+            System.out.printf("Serving %d particles on %s%n", engine.getParticleCount(), server.serverChannel.getLocalAddress());
+            engine.start();
+            server.run();
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid input. Please enter valid numbers.");
+            System.err.println(USAGE);
+            System.exit(1);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(1);
+        } catch (IOException e) {
+            System.err.println("Server failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    @Override
+    public void frameReady() {
+        if (framePending.compareAndSet(false, true)) {
+            selector.wakeup();
+        }
+    }
+
+    public void run() throws IOException {
+        long nextReport = System.nanoTime() + REPORT_INTERVAL_NANOS;
+        while (!Thread.currentThread().isInterrupted()) {
+            selector.select(REPORT_INTERVAL_NANOS / 1_000_000);
+
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                if (!key.isValid()) continue;
+                if (key.isAcceptable()) {
+                    accept();
+                    continue;
+                }
+                Session session = (Session) key.attachment();
+                try {
+                    if (key.isReadable()) read(session);
+                    if (key.isValid() && key.isWritable()) flush(session);
+                } catch (IOException e) {
+                    close(session);
+                }
+            }
+
+            if (framePending.getAndSet(false)) {
+                broadcast();
+            }
+
+            long now = System.nanoTime();
+            if (now - nextReport >= 0) {
+                report();
+                nextReport = now + REPORT_INTERVAL_NANOS;
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            Session session = new Session(channel, engine.width / 2, engine.height / 2);
+            session.key = channel.register(selector, SelectionKey.OP_READ, session);
+            sessions.add(session);
+        }
+    }
+
+    private void read(Session session) throws IOException {
+        if (session.channel.read(session.in) < 0) {
+            close(session);
+            return;
+        }
+        session.in.flip();
+        while (session.in.remaining() >= ExplorerProtocol.POSITION_BYTES) {
+            session.spriteX = Math.max(0, Math.min(engine.width, session.in.getInt()));
+            session.spriteY = Math.max(0, Math.min(engine.height, session.in.getInt()));
+        }
+        session.in.compact();
+    }
+
+    private void broadcast() {
+        ParticleFrame frame = engine.latestFrame();
+        if (frame.tick == lastBroadcastTick) return;
+        lastBroadcastTick = frame.tick;
+
+        long broadcastStart = System.nanoTime();
+        for (int i = sessions.size() - 1; i >= 0; i--) {
+            Session session = sessions.get(i);
+            if (session.out.hasRemaining()) {
+                framesSkipped++;
+                continue;
+            }
+
+            int viewportX = ExplorerProtocol.viewportX(session.spriteX, engine.width);
+            int viewportY = ExplorerProtocol.viewportY(session.spriteY, engine.height);
+            ExplorerProtocol.occupancy(frame, engine.height, viewportX, viewportY, session.current);
+
+            session.out.clear();
+            ExplorerProtocol.writeFrame(session.out, frame.tick, viewportX, viewportY, !session.keyframeSent, session.sent, session.current);
+            session.out.flip();
+            long[] sent = session.current;
+            session.current = session.sent;
+            session.sent = sent;
+            session.keyframeSent = true;
+            framesSent++;
+
+            try {
+                flush(session);
+            } catch (IOException e) {
+                close(session);
+            }
+        }
+        engine.getMetrics().record(FrameMetrics.Phase.BROADCAST, System.nanoTime() - broadcastStart);
+    }
+
+    private void flush(Session session) throws IOException {
+        bytesSent += session.channel.write(session.out);
+        int interest = session.out.hasRemaining() ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ;
+        if (session.key.interestOps() != interest) {
+            session.key.interestOps(interest);
+        }
+    }
+
+    private void close(Session session) {
+        sessions.remove(session);
+        session.key.cancel();
+        try {
+            session.channel.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private void report() {
+        FrameMetrics.Summary broadcast = engine.getMetrics().summary(FrameMetrics.Phase.BROADCAST);
+        System.out.printf("clients=%d frames=%d skipped=%d sent=%.1f KiB broadcast p50=%.2f ms p99=%.2f ms dropped steps=%d%n",
+                sessions.size(), framesSent, framesSkipped, bytesSent / 1024.0,
+                broadcast.p50 / 1_000_000.0, broadcast.p99 / 1_000_000.0, engine.getDroppedSteps());
+        framesSent = 0;
+        framesSkipped = 0;
+        bytesSent = 0;
+    }
+
+    private static final class Session {
+        final SocketChannel channel;
+        final ByteBuffer in = ByteBuffer.allocate(ExplorerProtocol.POSITION_BYTES * 64);
+        final ByteBuffer out = ByteBuffer.allocate(ExplorerProtocol.MAX_FRAME_BYTES).flip();
+        long[] sent = new long[ExplorerProtocol.WORDS];
+        long[] current = new long[ExplorerProtocol.WORDS];
+        boolean keyframeSent = false;
+        int spriteX;
+        int spriteY;
+        SelectionKey key;
+
+        Session(SocketChannel channel, int spriteX, int spriteY) {
+            this.channel = channel;
+            this.spriteX = spriteX;
+            this.spriteY = spriteY;
+        }
+    }
+}
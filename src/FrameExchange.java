@@ -0,0 +1,35 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+class FrameExchange<T> {
+    private static final int INDEX_MASK = 0b11;
+    private static final int FRESH = 0b100;
+
+    private final Object[] buffers = new Object[3];
+    private final AtomicInteger shared = new AtomicInteger(1);
+    private int backIndex = 0;
+    private int frontIndex = 2;
+
+    public FrameExchange(Supplier<T> factory) {
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = factory.get();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public T back() {
+        return (T) buffers[backIndex];
+    }
+
+    public void publish() {
+        backIndex = shared.getAndSet(backIndex | FRESH) & INDEX_MASK;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T latest() {
+        if ((shared.get() & FRESH) != 0) {
+            frontIndex = shared.getAndSet(frontIndex) & INDEX_MASK;
+        }
+        return (T) buffers[frontIndex];
+    }
+}
@@ -0,0 +1,129 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+class FrameMetrics {
+    enum Phase {
+        SNAPSHOT("Snapshot"),
+        PHYSICS("Physics"),
+        COLLISION_BROAD("Broad phase"),
+        COLLISION_NARROW("Narrow phase"),
+        RASTER("Raster"),
+        BLIT("Blit"),
+        EDT_LATENCY("EDT queue"),
+        BROADCAST("Broadcast");
+
+        final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+    }
+
+    static final class Summary {
+        final long count;
+        final long p50;
+        final long p99;
+        final long max;
+
+        Summary(long count, long p50, long p99, long max) {
+            this.count = count;
+            this.p50 = p50;
+            this.p99 = p99;
+            this.max = max;
+        }
+    }
+
+    private static final long REPORT_INTERVAL_MILLIS = 1000;
+    private static final Summary EMPTY = new Summary(0, 0, 0, 0);
+
+    private final LatencyHistogram[] histograms = new LatencyHistogram[Phase.values().length];
+    private final Summary[] summaries = new Summary[Phase.values().length];
+    private final ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "frame-metrics");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Path dumpFile;
+    private boolean dumpFailed = false;
+    private volatile long collisionPairs = 0;
+
+    public FrameMetrics() {
+        this(System.getProperty("simulator.metricsFile"));
+    }
+
+    public FrameMetrics(String dumpFile) {
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+            summaries[i] = EMPTY;
+        }
+        this.dumpFile = dumpFile == null ? null : Paths.get(dumpFile);
+        reporter.scheduleAtFixedRate(this::rollOver, REPORT_INTERVAL_MILLIS, REPORT_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public void record(Phase phase, long nanos) {
+        histograms[phase.ordinal()].record(nanos);
+    }
+
+    public void recordCollisionPairs(long pairs) {
+        collisionPairs = pairs;
+    }
+
+    public long collisionPairs() {
+        return collisionPairs;
+    }
+
+    public synchronized Summary summary(Phase phase) {
+        return summaries[phase.ordinal()];
+    }
+
+    public void shutdown() {
+        reporter.shutdown();
+    }
+
+    private synchronized void rollOver() {
+        for (Phase phase : Phase.values()) {
+            LatencyHistogram histogram = histograms[phase.ordinal()];
+            summaries[phase.ordinal()] = new Summary(histogram.count(), histogram.percentile(50),
+                    histogram.percentile(99), histogram.max());
+            histogram.reset();
+        }
+        if (dumpFile != null && !dumpFailed) {
+            dump(System.currentTimeMillis());
+        }
+    }
+
+    private void dump(long timestamp) {
+        boolean json = dumpFile.toString().endsWith(".json");
+        StringBuilder lines = new StringBuilder();
+        for (Phase phase : Phase.values()) {
+            Summary summary = summaries[phase.ordinal()];
+            if (json) {
+                lines.append(String.format(Locale.ROOT,
+                        "{\"timestamp\":%d,\"phase\":\"%s\",\"count\":%d,\"p50Micros\":%.1f,\"p99Micros\":%.1f,\"maxMicros\":%.1f}%n",
+                        timestamp, phase.name(), summary.count, summary.p50 / 1000.0, summary.p99 / 1000.0, summary.max / 1000.0));
+            } else {
+                lines.append(String.format(Locale.ROOT, "%d,%s,%d,%.1f,%.1f,%.1f%n",
+                        timestamp, phase.name(), summary.count, summary.p50 / 1000.0, summary.p99 / 1000.0, summary.max / 1000.0));
+            }
+        }
+
+        try {
+            if (!json && Files.notExists(dumpFile)) {
+                lines.insert(0, String.format("timestamp,phase,count,p50_us,p99_us,max_us%n"));
+            }
+            Files.write(dumpFile, lines.toString().getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            dumpFailed = true;
+            System.err.println("Unable to write frame metrics to " + dumpFile + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,143 @@
+import java.awt.*;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.function.Supplier;
+
+public class HeadlessSimulator {
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: HeadlessSimulator <ticks> <spec> [<spec> ...]",
+            "  random:n",
+            "  between:n,startX,startY,endX,endY,angle,velocity",
+            "  angles:n,x,y,startAngle,endAngle,velocity",
+            "  velocities:n,x,y,angle,startVelocity,endVelocity");
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+
+        try {
+            int ticks = Integer.parseInt(args[0]);
+            if (ticks < 1) throw new IllegalArgumentException("Number of ticks must be at least 1.");
+
+            SimulationEngine engine = new SimulationEngine(1280, 720);
+            SimulationRecorder recorder = null;
+            String recordFile = System.getProperty("simulator.record");
+            if (recordFile != null) {
+                recorder = new SimulationRecorder(Paths.get(recordFile), engine.width, engine.height, Constants.KEYFRAME_INTERVAL);
+                engine.setRecorder(recorder);
+            }
+            for (int i = 1; i < args.length; i++) {
+                spawn(engine, args[i]);
+            }
+            engine.awaitPendingSpawns();
+
+            long startTime = System.nanoTime();
+            for (int i = 0; i < ticks; i++) {
+                engine.step(Constants.PHYSICS_TIME_STEP);
+            }
+            double elapsedTimeInSeconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+            if (recorder != null) {
+                recorder.close();
+                System.out.printf("Recorded to %s (%d keyframes dropped)%n", recordFile, recorder.getDroppedKeyframes());
+            }
+
+            System.out.printf("Physics kernel: %s%n", engine.getPhysicsKernel().name());
+            if (engine.isShardedActive()) {
+                System.out.printf("Shards: %d%n", engine.getShardCount());
+            }
+            System.out.printf("Particles: %d%n", engine.getParticleCount());
+            System.out.printf("Ticks: %d in %.3f s%n", ticks, elapsedTimeInSeconds);
+            System.out.printf("Ticks/s: %.2f%n", ticks / elapsedTimeInSeconds);
+            if (engine.isCollisions()) {
+                System.out.printf("Collision pairs in last tick: %d%n", engine.getMetrics().collisionPairs());
+            }
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid input. Please enter valid numbers.");
+            System.err.println(USAGE);
+            System.exit(1);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(1);
+        } catch (IOException e) {
+            System.err.println("Recording failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    static void spawn(SimulationEngine engine, String spec) {
+        engine.addParticles(parseSpec(spec));
+    }
+
+    static Supplier<ParticleBatch> parseSpec(String spec) {
+        int separator = spec.indexOf(':');
+        if (separator < 0) throw new IllegalArgumentException("Invalid particle spec: " + spec);
+
+        String kind = spec.substring(0, separator);
+        String[] values = spec.substring(separator + 1).split(",");
+        switch (kind) {
+            case "random": {
+                expectValues(spec, values, 1);
+                int n = particleCount(spec, values[0]);
+                return () -> randomBatch(n);
+            }
+            case "between": {
+                expectValues(spec, values, 7);
+                int n = particleCount(spec, values[0]);
+                Point start = new Point(Integer.parseInt(values[1]), Integer.parseInt(values[2]));
+                Point end = new Point(Integer.parseInt(values[3]), Integer.parseInt(values[4]));
+                double angle = Double.parseDouble(values[5]);
+                double velocity = Double.parseDouble(values[6]);
+                return () -> ParticleBatch.betweenPoints(n, start, end, angle, velocity);
+            }
+            case "angles": {
+                expectValues(spec, values, 6);
+                int n = particleCount(spec, values[0]);
+                Point start = new Point(Integer.parseInt(values[1]), Integer.parseInt(values[2]));
+                double startAngle = Double.parseDouble(values[3]);
+                double endAngle = Double.parseDouble(values[4]);
+                double velocity = Double.parseDouble(values[5]);
+                return () -> ParticleBatch.varyingAngles(n, start, startAngle, endAngle, velocity);
+            }
+            case "velocities": {
+                expectValues(spec, values, 6);
+                int n = particleCount(spec, values[0]);
+                Point start = new Point(Integer.parseInt(values[1]), Integer.parseInt(values[2]));
+                double angle = Double.parseDouble(values[3]);
+                double startVelocity = Double.parseDouble(values[4]);
+                double endVelocity = Double.parseDouble(values[5]);
+                return () -> ParticleBatch.varyingVelocities(n, start, angle, startVelocity, endVelocity);
+            }
+            default:
+                throw new IllegalArgumentException("Unknown particle spec: " + kind);
+        }
+    }
+
+    private static int particleCount(String spec, String value) {
+        int n = Integer.parseInt(value);
+        if (n < 1) throw new IllegalArgumentException("Particle count must be at least 1 in particle spec: " + spec);
+        return n;
+    }
+
+    private static void expectValues(String spec, String[] values, int expected) {
+        if (values.length != expected) {
+            throw new IllegalArgumentException("Expected " + expected + " values in particle spec: " + spec);
+        }
+    }
+
+    private static ParticleBatch randomBatch(int n) {
+        Random random = new Random();
+        ParticleBatch batch = new ParticleBatch(n);
+        for (int i = 0; i < n; i++) {
+            int x = random.nextInt(1280);
+            int y = random.nextInt(720);
+            double angle = random.nextDouble() * 360;
+            double velocity = 50 + random.nextDouble() * 450;
+            batch.set(i, x, y, angle, velocity);
+        }
+        return batch;
+    }
+}
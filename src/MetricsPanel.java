@@ -0,0 +1,37 @@
+import javax.swing.*;
+import java.awt.*;
+
+class MetricsPanel extends JPanel {
+    private static final long serialVersionUID = 1L;
+    private static final int REFRESH_MILLIS = 500;
+
+    private final FrameMetrics metrics;
+    private final JLabel[] phaseLabels = new JLabel[FrameMetrics.Phase.values().length];
+    private final JLabel collisionPairsLabel = new JLabel();
+
+    public MetricsPanel(FrameMetrics metrics) {
+        super(new FlowLayout(FlowLayout.LEFT));
+        this.metrics = metrics;
+        for (FrameMetrics.Phase phase : FrameMetrics.Phase.values()) {
+            JLabel label = new JLabel();
+            label.setFont(label.getFont().deriveFont(Font.PLAIN, 11f));
+            phaseLabels[phase.ordinal()] = label;
+            add(label);
+        }
+        collisionPairsLabel.setFont(collisionPairsLabel.getFont().deriveFont(Font.PLAIN, 11f));
+        add(collisionPairsLabel);
+        refresh();
+        new Timer(REFRESH_MILLIS, e -> {
+            if (isShowing()) refresh();
+        }).start();
+    }
+
+    private void refresh() {
+        for (FrameMetrics.Phase phase : FrameMetrics.Phase.values()) {
+            FrameMetrics.Summary summary = metrics.summary(phase);
+            phaseLabels[phase.ordinal()].setText(String.format("%s p50 %.2f / p99 %.2f / max %.2f ms",
+                    phase.label, summary.p50 / 1e6, summary.p99 / 1e6, summary.max / 1e6));
+        }
+        collisionPairsLabel.setText("Collision pairs " + metrics.collisionPairs());
+    }
+}
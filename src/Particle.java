@@ -4,6 +4,8 @@ class Particle {
     Point position;
     double angle;
     double velocity;
+    double velocityX;
+    double velocityY;
     double accumulatedX = 0.0;
     double accumulatedY = 0.0;
 
@@ -11,13 +13,14 @@ class Particle {
         this.position = new Point(x, y);
         this.angle = angle;
         this.velocity = velocity;
+        double radians = Math.toRadians(angle);
+        this.velocityX = velocity * Math.cos(radians);
+        this.velocityY = velocity * Math.sin(radians);
     }
 
     public void updatePosition(double deltaTime) {
-        double radians = Math.toRadians(this.angle);
-
-        double deltaX = this.velocity * Math.cos(radians) * deltaTime;
-        double deltaY = this.velocity * Math.sin(radians) * deltaTime;
+        double deltaX = this.velocityX * deltaTime;
+        double deltaY = this.velocityY * deltaTime;
 
         accumulatedX += deltaX;
         accumulatedY += deltaY;
@@ -37,17 +40,21 @@ class Particle {
 
         if (position.x <= 0) {
             angle = 180 - angle;
+            velocityX = -velocityX;
             position.x = buffer;
         } else if (position.x + particleDiameter >= canvasWidth) {
             angle = 180 - angle;
+            velocityX = -velocityX;
             position.x = canvasWidth - particleDiameter - buffer;
         }
 
         if (position.y + particleDiameter >= canvasHeight) {
             angle = -angle;
+            velocityY = -velocityY;
             position.y = canvasHeight - particleDiameter - buffer;
         } else if (position.y <= 0) {
             angle = -angle;
+            velocityY = -velocityY;
             position.y = buffer;
         }
 
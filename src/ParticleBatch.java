@@ -0,0 +1,96 @@
+import java.awt.*;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+class ParticleBatch {
+    private static final int PARALLEL_THRESHOLD = 10_000;
+
+    final int[] x;
+    final int[] y;
+    final double[] velocityX;
+    final double[] velocityY;
+    final int size;
+    int id = 0;
+    long lifetimeTicks = 0;
+
+    public ParticleBatch(int size) {
+        this.size = size;
+        this.x = new int[size];
+        this.y = new int[size];
+        this.velocityX = new double[size];
+        this.velocityY = new double[size];
+    }
+
+    public void set(int i, int x, int y, double angle, double velocity) {
+        double radians = Math.toRadians(angle);
+        this.x[i] = x;
+        this.y[i] = y;
+        this.velocityX[i] = velocity * Math.cos(radians);
+        this.velocityY[i] = velocity * Math.sin(radians);
+    }
+
+    public static ParticleBatch of(Particle particle) {
+        ParticleBatch batch = new ParticleBatch(1);
+        batch.x[0] = particle.position.x;
+        batch.y[0] = particle.position.y;
+        batch.velocityX[0] = particle.velocityX;
+        batch.velocityY[0] = particle.velocityY;
+        return batch;
+    }
+
+    public static ParticleBatch betweenPoints(int n, Point start, Point end, double angle, double velocity) {
+        if (n <= 0) return new ParticleBatch(0);
+        if (n == 1) return of(new Particle(start.x, start.y, angle, velocity));
+
+        ParticleBatch batch = new ParticleBatch(n);
+        int deltaX = end.x - start.x;
+        int deltaY = end.y - start.y;
+        double divisor = n - 1;
+        double radians = Math.toRadians(angle);
+        double velocityX = velocity * Math.cos(radians);
+        double velocityY = velocity * Math.sin(radians);
+        fill(n, i -> {
+            double ratio = i / divisor;
+            batch.x[i] = start.x + (int) (deltaX * ratio);
+            batch.y[i] = start.y + (int) (deltaY * ratio);
+            batch.velocityX[i] = velocityX;
+            batch.velocityY[i] = velocityY;
+        });
+        return batch;
+    }
+
+    public static ParticleBatch varyingAngles(int n, Point start, double startAngle, double endAngle, double velocity) {
+        if (n <= 1) return of(new Particle(start.x, start.y, startAngle, velocity));
+
+        ParticleBatch batch = new ParticleBatch(n);
+        double angleIncrement = (endAngle - startAngle) / (n - 1);
+        fill(n, i -> batch.set(i, start.x, start.y, startAngle + (angleIncrement * i), velocity));
+        return batch;
+    }
+
+    public static ParticleBatch varyingVelocities(int n, Point start, double angle, double startVelocity, double endVelocity) {
+        if (n <= 1) return of(new Particle(start.x, start.y, angle, startVelocity));
+
+        ParticleBatch batch = new ParticleBatch(n);
+        double velocityIncrement = (endVelocity - startVelocity) / (n - 1);
+        double radians = Math.toRadians(angle);
+        double cos = Math.cos(radians);
+        double sin = Math.sin(radians);
+        fill(n, i -> {
+            double velocity = startVelocity + (velocityIncrement * i);
+            batch.x[i] = start.x;
+            batch.y[i] = start.y;
+            batch.velocityX[i] = velocity * cos;
+            batch.velocityY[i] = velocity * sin;
+        });
+        return batch;
+    }
+
+    private static void fill(int n, IntConsumer generator) {
+        IntStream indices = IntStream.range(0, n);
+        if (n >= PARALLEL_THRESHOLD) {
+            indices = indices.parallel();
+        }
+        indices.forEach(generator);
+    }
+}
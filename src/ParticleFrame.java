@@ -0,0 +1,80 @@
+class ParticleFrame {
+    private static final int GRID_CELL_SIZE = 16;
+
+    int[] x = new int[0];
+    int[] y = new int[0];
+    int[] previousX = new int[0];
+    int[] previousY = new int[0];
+    int count = 0;
+    long tick = 0;
+    long capturedAt = 0;
+    final SpatialGrid grid;
+    boolean indexed = false;
+
+    public ParticleFrame(int worldWidth, int worldHeight) {
+        this.grid = new SpatialGrid(worldWidth, worldHeight, GRID_CELL_SIZE);
+    }
+
+    public void ensureCapacity(int capacity) {
+        if (x.length >= capacity) return;
+
+        x = new int[capacity];
+        y = new int[capacity];
+        previousX = new int[capacity];
+        previousY = new int[capacity];
+    }
+
+    public void capture(ParticleStore store, long tick) {
+        int size = store.size();
+        if (x.length < size) {
+            ensureCapacity(store.capacity());
+        }
+        store.copyPositions(x, y);
+        store.copyPreviousPositions(previousX, previousY);
+        this.count = size;
+        this.tick = tick;
+        this.capturedAt = System.nanoTime();
+        this.indexed = false;
+    }
+
+    public void capture(ShardedWorld world, long tick) {
+        int shards = world.shardCount();
+        int size = world.size();
+        if (x.length < size) {
+            ensureCapacity(size + (size >> 1));
+        }
+
+        int offset = 0;
+        for (int s = 0; s < shards; s++) {
+            ParticleStore particles = world.shard(s).particles;
+            int n = particles.size();
+            System.arraycopy(particles.x, 0, x, offset, n);
+            System.arraycopy(particles.y, 0, y, offset, n);
+            System.arraycopy(particles.previousX, 0, previousX, offset, n);
+            System.arraycopy(particles.previousY, 0, previousY, offset, n);
+            offset += n;
+        }
+        this.count = offset;
+        this.tick = tick;
+        this.capturedAt = System.nanoTime();
+        this.indexed = false;
+    }
+
+    public void index() {
+        grid.build(x, y, count);
+        indexed = true;
+    }
+
+    public double alpha(long now) {
+        double alpha = (double) (now - capturedAt) / Constants.PHYSICS_STEP_NANOS;
+        return Math.max(0.0, Math.min(1.0, alpha));
+    }
+
+    public int interpolatedX(int i, double alpha) {
+        return previousX[i] + (int) Math.round((x[i] - previousX[i]) * alpha);
+    }
+
+    public int interpolatedY(int i, double alpha) {
+        return previousY[i] + (int) Math.round((y[i] - previousY[i]) * alpha);
+    }
+}
@@ -0,0 +1,50 @@
+class ParticleRemoval {
+    enum Kind {
+        ALL,
+        BATCH,
+        REGION
+    }
+
+    final Kind kind;
+    final int batchId;
+    final int minX;
+    final int minY;
+    final int maxX;
+    final int maxY;
+
+    private ParticleRemoval(Kind kind, int batchId, int minX, int minY, int maxX, int maxY) {
+        this.kind = kind;
+        this.batchId = batchId;
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+    }
+
+    public static ParticleRemoval all() {
+        return new ParticleRemoval(Kind.ALL, 0, 0, 0, 0, 0);
+    }
+
+    public static ParticleRemoval batch(int batchId) {
+        return new ParticleRemoval(Kind.BATCH, batchId, 0, 0, 0, 0);
+    }
+
+    public static ParticleRemoval region(int x1, int y1, int x2, int y2) {
+        return new ParticleRemoval(Kind.REGION, 0, Math.min(x1, x2), Math.min(y1, y2), Math.max(x1, x2), Math.max(y1, y2));
+    }
+
+    static ParticleRemoval of(Kind kind, int batchId, int minX, int minY, int maxX, int maxY) {
+        return new ParticleRemoval(kind, batchId, minX, minY, maxX, maxY);
+    }
+
+    public boolean matches(int batchId, int x, int y) {
+        switch (kind) {
+            case ALL:
+                return true;
+            case BATCH:
+                return batchId == this.batchId;
+            default:
+                return x >= minX && x <= maxX && y >= minY && y <= maxY;
+        }
+    }
+}
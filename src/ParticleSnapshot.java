@@ -0,0 +1,46 @@
+class ParticleSnapshot {
+    long tick = 0;
+    int count = 0;
+    int[] x = new int[0];
+    int[] y = new int[0];
+    int[] previousX = new int[0];
+    int[] previousY = new int[0];
+    double[] accumulatedX = new double[0];
+    double[] accumulatedY = new double[0];
+    double[] velocityX = new double[0];
+    double[] velocityY = new double[0];
+    long[] expiresAt = new long[0];
+    int[] batchId = new int[0];
+
+    public void ensureCapacity(int capacity) {
+        if (x.length >= capacity) return;
+
+        x = new int[capacity];
+        y = new int[capacity];
+        previousX = new int[capacity];
+        previousY = new int[capacity];
+        accumulatedX = new double[capacity];
+        accumulatedY = new double[capacity];
+        velocityX = new double[capacity];
+        velocityY = new double[capacity];
+        expiresAt = new long[capacity];
+        batchId = new int[capacity];
+    }
+
+    public void copyFrom(ParticleStore store, long tick) {
+        int size = store.size();
+        ensureCapacity(store.capacity());
+        System.arraycopy(store.x, 0, x, 0, size);
+        System.arraycopy(store.y, 0, y, 0, size);
+        System.arraycopy(store.previousX, 0, previousX, 0, size);
+        System.arraycopy(store.previousY, 0, previousY, 0, size);
+        System.arraycopy(store.accumulatedX, 0, accumulatedX, 0, size);
+        System.arraycopy(store.accumulatedY, 0, accumulatedY, 0, size);
+        System.arraycopy(store.velocityX, 0, velocityX, 0, size);
+        System.arraycopy(store.velocityY, 0, velocityY, 0, size);
+        System.arraycopy(store.expiresAt, 0, expiresAt, 0, size);
+        System.arraycopy(store.batchId, 0, batchId, 0, size);
+        this.count = size;
+        this.tick = tick;
+    }
+}
@@ -0,0 +1,286 @@
+import java.util.Arrays;
+
+class ParticleStore {
+    private static final int DEFAULT_CAPACITY = 1024;
+    static final int PARTICLE_DIAMETER = 5;
+    static final int WALL_BUFFER = 1;
+    static final long NEVER = Long.MAX_VALUE;
+
+    int[] x;
+    int[] y;
+    int[] previousX;
+    int[] previousY;
+    double[] accumulatedX;
+    double[] accumulatedY;
+    double[] velocityX;
+    double[] velocityY;
+    long[] expiresAt;
+    int[] batchId;
+    long nextExpiry = NEVER;
+    private int size = 0;
+
+    public ParticleStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ParticleStore(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        x = new int[capacity];
+        y = new int[capacity];
+        previousX = new int[capacity];
+        previousY = new int[capacity];
+        accumulatedX = new double[capacity];
+        accumulatedY = new double[capacity];
+        velocityX = new double[capacity];
+        velocityY = new double[capacity];
+        expiresAt = new long[capacity];
+        batchId = new int[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return x.length;
+    }
+
+    public void add(Particle particle) {
+        ensureCapacity(size + 1);
+        x[size] = particle.position.x;
+        y[size] = particle.position.y;
+        previousX[size] = particle.position.x;
+        previousY[size] = particle.position.y;
+        accumulatedX[size] = particle.accumulatedX;
+        accumulatedY[size] = particle.accumulatedY;
+        velocityX[size] = particle.velocityX;
+        velocityY[size] = particle.velocityY;
+        expiresAt[size] = NEVER;
+        batchId[size] = 0;
+        size++;
+    }
+
+    public void add(int x, int y, double angle, double velocity) {
+        double radians = Math.toRadians(angle);
+        ensureCapacity(size + 1);
+        this.x[size] = x;
+        this.y[size] = y;
+        this.previousX[size] = x;
+        this.previousY[size] = y;
+        this.accumulatedX[size] = 0.0;
+        this.accumulatedY[size] = 0.0;
+        this.velocityX[size] = velocity * Math.cos(radians);
+        this.velocityY[size] = velocity * Math.sin(radians);
+        this.expiresAt[size] = NEVER;
+        this.batchId[size] = 0;
+        size++;
+    }
+
+    public void add(ParticleBatch batch, int k, long tick) {
+        long expiry = batch.lifetimeTicks > 0 ? tick + batch.lifetimeTicks : NEVER;
+        ensureCapacity(size + 1);
+        x[size] = batch.x[k];
+        y[size] = batch.y[k];
+        previousX[size] = batch.x[k];
+        previousY[size] = batch.y[k];
+        accumulatedX[size] = 0.0;
+        accumulatedY[size] = 0.0;
+        velocityX[size] = batch.velocityX[k];
+        velocityY[size] = batch.velocityY[k];
+        expiresAt[size] = expiry;
+        batchId[size] = batch.id;
+        nextExpiry = Math.min(nextExpiry, expiry);
+        size++;
+    }
+
+    public void add(ParticleStore source, int i) {
+        ensureCapacity(size + 1);
+        x[size] = source.x[i];
+        y[size] = source.y[i];
+        previousX[size] = source.previousX[i];
+        previousY[size] = source.previousY[i];
+        accumulatedX[size] = source.accumulatedX[i];
+        accumulatedY[size] = source.accumulatedY[i];
+        velocityX[size] = source.velocityX[i];
+        velocityY[size] = source.velocityY[i];
+        expiresAt[size] = source.expiresAt[i];
+        batchId[size] = source.batchId[i];
+        nextExpiry = Math.min(nextExpiry, source.expiresAt[i]);
+        size++;
+    }
+
+    public void addAll(ParticleBatch batch) {
+        addAll(batch, 0);
+    }
+
+    public void addAll(ParticleBatch batch, long tick) {
+        int n = batch.size;
+        long expiry = batch.lifetimeTicks > 0 ? tick + batch.lifetimeTicks : NEVER;
+        ensureCapacity(size + n);
+        System.arraycopy(batch.x, 0, x, size, n);
+        System.arraycopy(batch.y, 0, y, size, n);
+        System.arraycopy(batch.x, 0, previousX, size, n);
+        System.arraycopy(batch.y, 0, previousY, size, n);
+        Arrays.fill(accumulatedX, size, size + n, 0.0);
+        Arrays.fill(accumulatedY, size, size + n, 0.0);
+        System.arraycopy(batch.velocityX, 0, velocityX, size, n);
+        System.arraycopy(batch.velocityY, 0, velocityY, size, n);
+        Arrays.fill(expiresAt, size, size + n, expiry);
+        Arrays.fill(batchId, size, size + n, batch.id);
+        nextExpiry = Math.min(nextExpiry, expiry);
+        size += n;
+    }
+
+    public void restore(ParticleSnapshot snapshot) {
+        int n = snapshot.count;
+        ensureCapacity(n);
+        System.arraycopy(snapshot.x, 0, x, 0, n);
+        System.arraycopy(snapshot.y, 0, y, 0, n);
+        System.arraycopy(snapshot.previousX, 0, previousX, 0, n);
+        System.arraycopy(snapshot.previousY, 0, previousY, 0, n);
+        System.arraycopy(snapshot.accumulatedX, 0, accumulatedX, 0, n);
+        System.arraycopy(snapshot.accumulatedY, 0, accumulatedY, 0, n);
+        System.arraycopy(snapshot.velocityX, 0, velocityX, 0, n);
+        System.arraycopy(snapshot.velocityY, 0, velocityY, 0, n);
+        System.arraycopy(snapshot.expiresAt, 0, expiresAt, 0, n);
+        System.arraycopy(snapshot.batchId, 0, batchId, 0, n);
+        size = n;
+        nextExpiry = NEVER;
+        for (int i = 0; i < n; i++) {
+            nextExpiry = Math.min(nextExpiry, expiresAt[i]);
+        }
+    }
+
+    public void removeAt(int i) {
+        int last = --size;
+        if (i == last) return;
+
+        x[i] = x[last];
+        y[i] = y[last];
+        previousX[i] = previousX[last];
+        previousY[i] = previousY[last];
+        accumulatedX[i] = accumulatedX[last];
+        accumulatedY[i] = accumulatedY[last];
+        velocityX[i] = velocityX[last];
+        velocityY[i] = velocityY[last];
+        expiresAt[i] = expiresAt[last];
+        batchId[i] = batchId[last];
+    }
+
+    public void swap(int i, int j) {
+        int xi = x[i];
+        x[i] = x[j];
+        x[j] = xi;
+        int yi = y[i];
+        y[i] = y[j];
+        y[j] = yi;
+        int previousXi = previousX[i];
+        previousX[i] = previousX[j];
+        previousX[j] = previousXi;
+        int previousYi = previousY[i];
+        previousY[i] = previousY[j];
+        previousY[j] = previousYi;
+        double accumulatedXi = accumulatedX[i];
+        accumulatedX[i] = accumulatedX[j];
+        accumulatedX[j] = accumulatedXi;
+        double accumulatedYi = accumulatedY[i];
+        accumulatedY[i] = accumulatedY[j];
+        accumulatedY[j] = accumulatedYi;
+        double velocityXi = velocityX[i];
+        velocityX[i] = velocityX[j];
+        velocityX[j] = velocityXi;
+        double velocityYi = velocityY[i];
+        velocityY[i] = velocityY[j];
+        velocityY[j] = velocityYi;
+        long expiresAti = expiresAt[i];
+        expiresAt[i] = expiresAt[j];
+        expiresAt[j] = expiresAti;
+        int batchIdi = batchId[i];
+        batchId[i] = batchId[j];
+        batchId[j] = batchIdi;
+    }
+
+    public void clear() {
+        size = 0;
+        nextExpiry = NEVER;
+    }
+
+    public void trim() {
+        if (size >= x.length / 4 || x.length <= DEFAULT_CAPACITY) return;
+
+        resize(Math.max(DEFAULT_CAPACITY, size * 2));
+    }
+
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity <= x.length) return;
+
+        resize(Math.max(minCapacity, x.length + (x.length >> 1)));
+    }
+
+    private void resize(int newCapacity) {
+        x = Arrays.copyOf(x, newCapacity);
+        y = Arrays.copyOf(y, newCapacity);
+        previousX = Arrays.copyOf(previousX, newCapacity);
+        previousY = Arrays.copyOf(previousY, newCapacity);
+        accumulatedX = Arrays.copyOf(accumulatedX, newCapacity);
+        accumulatedY = Arrays.copyOf(accumulatedY, newCapacity);
+        velocityX = Arrays.copyOf(velocityX, newCapacity);
+        velocityY = Arrays.copyOf(velocityY, newCapacity);
+        expiresAt = Arrays.copyOf(expiresAt, newCapacity);
+        batchId = Arrays.copyOf(batchId, newCapacity);
+    }
+
+    public void update(int from, int to, double deltaTime, int canvasWidth, int canvasHeight) {
+        for (int i = from; i < to; i++) {
+            previousX[i] = x[i];
+            previousY[i] = y[i];
+            updatePosition(i, deltaTime);
+            handleWallCollision(i, canvasWidth, canvasHeight);
+        }
+    }
+
+    public void updatePosition(int i, double deltaTime) {
+        double accX = accumulatedX[i] + velocityX[i] * deltaTime;
+        double accY = accumulatedY[i] + velocityY[i] * deltaTime;
+
+        if (Math.abs(accX) >= 1.0 || Math.abs(accY) >= 1.0) {
+            int stepX = (int) Math.round(accX);
+            int stepY = (int) Math.round(accY);
+            x[i] += stepX;
+            y[i] += stepY;
+            accX -= stepX;
+            accY -= stepY;
+        }
+
+        accumulatedX[i] = accX;
+        accumulatedY[i] = accY;
+    }
+
+    public void handleWallCollision(int i, int canvasWidth, int canvasHeight) {
+        if (x[i] <= 0) {
+            velocityX[i] = -velocityX[i];
+            x[i] = WALL_BUFFER;
+        } else if (x[i] + PARTICLE_DIAMETER >= canvasWidth) {
+            velocityX[i] = -velocityX[i];
+            x[i] = canvasWidth - PARTICLE_DIAMETER - WALL_BUFFER;
+        }
+
+        if (y[i] + PARTICLE_DIAMETER >= canvasHeight) {
+            velocityY[i] = -velocityY[i];
+            y[i] = canvasHeight - PARTICLE_DIAMETER - WALL_BUFFER;
+        } else if (y[i] <= 0) {
+            velocityY[i] = -velocityY[i];
+            y[i] = WALL_BUFFER;
+        }
+    }
+
+    public void copyPositions(int[] xOut, int[] yOut) {
+        System.arraycopy(x, 0, xOut, 0, size);
+        System.arraycopy(y, 0, yOut, 0, size);
+    }
+
+    public void copyPreviousPositions(int[] xOut, int[] yOut) {
+        System.arraycopy(previousX, 0, xOut, 0, size);
+        System.arraycopy(previousY, 0, yOut, 0, size);
+    }
+}
@@ -0,0 +1,5 @@
+interface PhysicsKernel {
+    String name();
+
+    void step(ParticleStore store, int from, int to, double deltaTime, int canvasWidth, int canvasHeight);
+}
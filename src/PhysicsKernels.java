@@ -0,0 +1,17 @@
+final class PhysicsKernels {
+    private PhysicsKernels() {
+    }
+
+    public static PhysicsKernel select(String name) {
+        if (!"vector".equals(name)) {
+            return new ScalarPhysicsKernel();
+        }
+
+        try {
+            return (PhysicsKernel) Class.forName("VectorPhysicsKernel").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            System.err.println("Vector physics kernel unavailable (run with --add-modules jdk.incubator.vector), using scalar: " + e);
+            return new ScalarPhysicsKernel();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+class PhysicsWorkers {
+    interface RangeTask {
+        void run(int from, int to);
+    }
+
+    interface PartitionTask {
+        void run(int partition, int from, int to);
+    }
+
+    private static final int SPIN_ITERATIONS = 20_000;
+
+    private final Worker[] workers;
+    private final int parties;
+    private final int sequentialThreshold;
+    private final AtomicInteger remaining = new AtomicInteger();
+    private volatile long epoch = 0;
+    private volatile boolean running = true;
+    private volatile boolean coordinatorWaiting = false;
+    private volatile Thread coordinator;
+    private volatile Throwable failure;
+    private PartitionTask task;
+    private int count;
+
+    public PhysicsWorkers(int workerCount, int sequentialThreshold) {
+        this.parties = Math.max(1, workerCount);
+        this.sequentialThreshold = sequentialThreshold;
+        this.workers = new Worker[parties - 1];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Worker(i + 1);
+            workers[i].start();
+        }
+    }
+
+    public int getWorkerCount() {
+        return parties;
+    }
+
+    public int partitionCount(int count) {
+        return count < sequentialThreshold || workers.length == 0 ? 1 : parties;
+    }
+
+    public void run(int count, RangeTask task) {
+        run(count, (partition, from, to) -> task.run(from, to));
+    }
+
+    public void run(int count, PartitionTask task) {
+        if (partitionCount(count) == 1) {
+            task.run(0, 0, count);
+            return;
+        }
+
+        this.task = task;
+        this.count = count;
+        this.failure = null;
+        this.coordinator = Thread.currentThread();
+        remaining.set(workers.length);
+        epoch++;
+        for (Worker worker : workers) {
+            if (worker.waiting) {
+                LockSupport.unpark(worker);
+            }
+        }
+
+        try {
+            task.run(0, 0, partitionEnd(0));
+        } finally {
+            awaitWorkers();
+            this.task = null;
+        }
+
+        Throwable workerFailure = failure;
+        if (workerFailure != null) {
+            throw new IllegalStateException("Physics worker failed", workerFailure);
+        }
+    }
+
+    public void shutdown() {
+        running = false;
+        for (Worker worker : workers) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    private int partitionStart(int index) {
+        return (int) ((long) count * index / parties);
+    }
+
+    private int partitionEnd(int index) {
+        return (int) ((long) count * (index + 1) / parties);
+    }
+
+    private void awaitWorkers() {
+        for (int spins = 0; remaining.get() != 0; spins++) {
+            if (spins < SPIN_ITERATIONS) {
+                Thread.onSpinWait();
+                continue;
+            }
+            coordinatorWaiting = true;
+            if (remaining.get() != 0) {
+                LockSupport.park(this);
+            }
+            coordinatorWaiting = false;
+        }
+    }
+
+    private void finishPartition() {
+        if (remaining.decrementAndGet() == 0 && coordinatorWaiting) {
+            LockSupport.unpark(coordinator);
+        }
+    }
+
+    private class Worker extends Thread {
+        private final int index;
+        private volatile boolean waiting = false;
+
+        Worker(int index) {
+            super("physics-worker-" + index);
+            this.index = index;
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            long seenEpoch = 0;
+            while (true) {
+                seenEpoch = awaitEpoch(seenEpoch);
+                if (!running) return;
+
+                try {
+                    task.run(index, partitionStart(index), partitionEnd(index));
+                } catch (Throwable t) {
+                    failure = t;
+                } finally {
+                    finishPartition();
+                }
+            }
+        }
+
+        private long awaitEpoch(long seenEpoch) {
+            for (int spins = 0; running; spins++) {
+                long current = epoch;
+                if (current != seenEpoch) return current;
+
+                if (spins < SPIN_ITERATIONS) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                waiting = true;
+                if (epoch == seenEpoch && running) {
+                    LockSupport.park(this);
+                }
+                waiting = false;
+            }
+            return seenEpoch;
+        }
+    }
+}
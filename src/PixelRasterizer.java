@@ -0,0 +1,139 @@
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+class PixelRasterizer {
+    private static final int PARTICLE_DIAMETER = 5;
+    private static final int PARTICLE_CENTER = PARTICLE_DIAMETER / 2;
+    private static final int[] STAMP_START = {1, 0, 0, 0, 1};
+    private static final int[] STAMP_END = {4, 5, 5, 5, 4};
+    private static final int TILE_HEIGHT = 32;
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    private final int[] pixels;
+    private final int width;
+    private final int height;
+    private final int tileCount;
+    private final int[] tileStart;
+    private int[][] tileOffsets = new int[0][];
+    private int[] drawX = new int[0];
+    private int[] drawY = new int[0];
+    private int[] order = new int[0];
+
+    public PixelRasterizer(BufferedImage image) {
+        this.pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        this.width = image.getWidth();
+        this.height = image.getHeight();
+        this.tileCount = (height + TILE_HEIGHT - 1) / TILE_HEIGHT;
+        this.tileStart = new int[tileCount + 1];
+    }
+
+    public void render(ParticleFrame frame, double alpha, int background, int foreground, ForkJoinPool pool) {
+        render(frame, alpha, background, foreground, false, pool);
+    }
+
+    public void render(ParticleFrame frame, double alpha, int background, int foreground, boolean points, ForkJoinPool pool) {
+        int count = frame.count;
+        if (drawX.length < count) {
+            drawX = new int[frame.x.length];
+            drawY = new int[frame.x.length];
+            order = new int[frame.x.length];
+        }
+
+        int chunks = (count + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        if (tileOffsets.length < chunks) {
+            tileOffsets = new int[(drawX.length + CHUNK_SIZE - 1) / CHUNK_SIZE][tileCount];
+        }
+        int[][] tileOffsets = this.tileOffsets;
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            Arrays.fill(tileOffsets[chunk], 0);
+        }
+
+        pool.submit(() -> {
+            IntStream.range(0, chunks).parallel().forEach(chunk -> binChunk(chunk, count, frame, alpha, tileOffsets[chunk]));
+
+            for (int tile = 0; tile < tileCount; tile++) {
+                int offset = tileStart[tile];
+                for (int chunk = 0; chunk < chunks; chunk++) {
+                    int chunkCount = tileOffsets[chunk][tile];
+                    tileOffsets[chunk][tile] = offset;
+                    offset += chunkCount;
+                }
+                tileStart[tile + 1] = offset;
+            }
+
+            IntStream.range(0, chunks).parallel().forEach(chunk -> scatterChunk(chunk, count, tileOffsets[chunk]));
+            IntStream.range(0, tileCount).parallel().forEach(tile -> renderTile(tile, tileStart, background, foreground, points));
+        }).join();
+    }
+
+    // Each particle is binned by the tile holding its top row; a stamp can spill into the next tile only.
+    private void binChunk(int chunk, int count, ParticleFrame frame, double alpha, int[] tileCounts) {
+        int from = chunk * CHUNK_SIZE;
+        int to = Math.min(count, from + CHUNK_SIZE);
+        for (int i = from; i < to; i++) {
+            int x = frame.interpolatedX(i, alpha);
+            int y = height - frame.interpolatedY(i, alpha) - PARTICLE_DIAMETER;
+            drawX[i] = x;
+            drawY[i] = y;
+            if (y >= height || y + PARTICLE_DIAMETER <= 0 || x >= width || x + PARTICLE_DIAMETER <= 0) continue;
+            tileCounts[Math.max(0, y) / TILE_HEIGHT]++;
+        }
+    }
+
+    private void scatterChunk(int chunk, int count, int[] tileCursor) {
+        int from = chunk * CHUNK_SIZE;
+        int to = Math.min(count, from + CHUNK_SIZE);
+        for (int i = from; i < to; i++) {
+            int x = drawX[i];
+            int y = drawY[i];
+            if (y >= height || y + PARTICLE_DIAMETER <= 0 || x >= width || x + PARTICLE_DIAMETER <= 0) continue;
+            order[tileCursor[Math.max(0, y) / TILE_HEIGHT]++] = i;
+        }
+    }
+
+    private void renderTile(int tile, int[] tileStart, int background, int foreground, boolean points) {
+        int tileTop = tile * TILE_HEIGHT;
+        int tileBottom = Math.min(height, tileTop + TILE_HEIGHT);
+        Arrays.fill(pixels, tileTop * width, tileBottom * width, background);
+
+        if (tile > 0) {
+            renderRange(tileStart[tile - 1], tileStart[tile], tileTop, tileBottom, foreground, points);
+        }
+        renderRange(tileStart[tile], tileStart[tile + 1], tileTop, tileBottom, foreground, points);
+    }
+
+    private void renderRange(int from, int to, int tileTop, int tileBottom, int foreground, boolean points) {
+        if (points) {
+            for (int k = from; k < to; k++) {
+                int i = order[k];
+                int x = drawX[i] + PARTICLE_CENTER;
+                int y = drawY[i] + PARTICLE_CENTER;
+                if (y < tileTop || y >= tileBottom || x < 0 || x >= width) continue;
+                pixels[y * width + x] = foreground;
+            }
+            return;
+        }
+
+        for (int k = from; k < to; k++) {
+            int i = order[k];
+            int y = drawY[i];
+            if (y >= tileBottom || y + PARTICLE_DIAMETER <= tileTop) continue;
+            stamp(drawX[i], y, tileTop, tileBottom, foreground);
+        }
+    }
+
+    private void stamp(int left, int top, int tileTop, int tileBottom, int color) {
+        int firstRow = Math.max(0, tileTop - top);
+        int lastRow = Math.min(PARTICLE_DIAMETER, tileBottom - top);
+        for (int row = firstRow; row < lastRow; row++) {
+            int from = Math.max(0, left + STAMP_START[row]);
+            int to = Math.min(width, left + STAMP_END[row]);
+            if (from >= to) continue;
+            int offset = (top + row) * width;
+            Arrays.fill(pixels, offset + from, offset + to, color);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.DoubleSupplier;
+
+class QualityGovernor {
+    enum Level {
+        FULL("Full", false, false, false, 1),
+        POINTS("Points", true, false, false, 1),
+        DENSITY("Density", false, true, false, 1),
+        LAZY_OFFSCREEN("Density, off-screen physics at 1/4 rate", false, true, true, 1),
+        HALF_RATE("Density, every 2nd frame", false, true, true, 2),
+        THIRD_RATE("Density, every 3rd frame", false, true, true, 3);
+
+        final String label;
+        final boolean points;
+        final boolean density;
+        final boolean lazyOffscreen;
+        final int renderEvery;
+
+        Level(String label, boolean points, boolean density, boolean lazyOffscreen, int renderEvery) {
+            this.label = label;
+            this.points = points;
+            this.density = density;
+            this.lazyOffscreen = lazyOffscreen;
+            this.renderEvery = renderEvery;
+        }
+    }
+
+    private static final double DEGRADE_LOAD = 0.9;
+    private static final double UPGRADE_LOAD = 0.45;
+    private static final int DEGRADE_FRAMES = 15;
+    private static final int SETTLE_FRAMES = 30;
+    private static final int MIN_UPGRADE_FRAMES = 120;
+    private static final int MAX_UPGRADE_FRAMES = 1800;
+    private static final int FLAP_FRAMES = 180;
+
+    private static final Level[] LEVELS = Arrays.stream(Level.values())
+            .filter(level -> Constants.LAZY_OFFSCREEN || level != Level.LAZY_OFFSCREEN)
+            .toArray(Level[]::new);
+
+    private final DoubleSupplier stepNanos;
+    private final DoubleSupplier renderNanos;
+    private final double stepsPerFrame;
+    private final Consumer<Level> onChange;
+    private volatile Level level = Level.FULL;
+    private int index = 0;
+    private volatile double load = 0;
+    private long frame = 0;
+    private int overBudgetFrames = 0;
+    private int underBudgetFrames = 0;
+    private int settleFrames = 0;
+    private int upgradeFrames = MIN_UPGRADE_FRAMES;
+    private long lastUpgradeFrame = -MAX_UPGRADE_FRAMES;
+
+    public QualityGovernor(DoubleSupplier stepNanos, DoubleSupplier renderNanos, double stepsPerFrame, Consumer<Level> onChange) {
+        this.stepNanos = stepNanos;
+        this.renderNanos = renderNanos;
+        this.stepsPerFrame = stepsPerFrame;
+        this.onChange = onChange;
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    public double getLoad() {
+        return load;
+    }
+
+    public boolean frameReady() {
+        Level current = level;
+        load = (stepNanos.getAsDouble() * stepsPerFrame + renderNanos.getAsDouble() / current.renderEvery) / Constants.OPTIMAL_TIME;
+        frame++;
+
+        if (settleFrames > 0) {
+            settleFrames--;
+        } else if (load > DEGRADE_LOAD) {
+            underBudgetFrames = 0;
+            if (++overBudgetFrames >= DEGRADE_FRAMES && index < LEVELS.length - 1) {
+                if (frame - lastUpgradeFrame < FLAP_FRAMES) {
+                    upgradeFrames = Math.min(MAX_UPGRADE_FRAMES, upgradeFrames * 2);
+                }
+                change(index + 1);
+            }
+        } else if (load < UPGRADE_LOAD) {
+            overBudgetFrames = 0;
+            if (++underBudgetFrames >= upgradeFrames && index > 0) {
+                lastUpgradeFrame = frame;
+                change(index - 1);
+            }
+        } else {
+            overBudgetFrames = 0;
+            underBudgetFrames = 0;
+        }
+        if (frame - lastUpgradeFrame > MAX_UPGRADE_FRAMES) {
+            upgradeFrames = MIN_UPGRADE_FRAMES;
+        }
+
+        return frame % level.renderEvery == 0;
+    }
+
+    private void change(int next) {
+        index = next;
+        level = LEVELS[next];
+        overBudgetFrames = 0;
+        underBudgetFrames = 0;
+        settleFrames = SETTLE_FRAMES;
+        onChange.accept(level);
+    }
+}
@@ -0,0 +1,80 @@
+import java.awt.image.BufferedImage;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+class RenderPipeline {
+    private static final double RECENT_WEIGHT = 0.125;
+
+    interface FrameRenderer {
+        void render(RenderTarget target, ParticleFrame frame, double alpha);
+    }
+
+    static final class RenderTarget {
+        final BufferedImage image;
+        final PixelRasterizer rasterizer;
+        final DensityRasterizer densityRasterizer;
+        long tick = 0;
+
+        RenderTarget(int width, int height) {
+            this.image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            this.rasterizer = new PixelRasterizer(image);
+            this.densityRasterizer = new DensityRasterizer(image);
+        }
+    }
+
+    private final SimulationEngine engine;
+    private final ForkJoinPool renderingThreadPool;
+    private final FrameMetrics metrics;
+    private final FrameRenderer renderer;
+    private final Runnable onRendered;
+    private final FrameExchange<RenderTarget> targets;
+    private final AtomicBoolean inFlight = new AtomicBoolean(false);
+    private volatile long skippedFrames = 0;
+    private volatile double recentRenderNanos = 0;
+
+    public RenderPipeline(SimulationEngine engine, ForkJoinPool renderingThreadPool, FrameRenderer renderer, Runnable onRendered) {
+        this.engine = engine;
+        this.renderingThreadPool = renderingThreadPool;
+        this.metrics = engine.getMetrics();
+        this.renderer = renderer;
+        this.onRendered = onRendered;
+        this.targets = new FrameExchange<>(() -> new RenderTarget(engine.width, engine.height));
+    }
+
+    public void requestFrame() {
+        if (!inFlight.compareAndSet(false, true)) {
+            skippedFrames++;
+            return;
+        }
+        renderingThreadPool.execute(this::renderLatestFrame);
+    }
+
+    public RenderTarget latest() {
+        return targets.latest();
+    }
+
+    public long getSkippedFrames() {
+        return skippedFrames;
+    }
+
+    public double getRecentRenderNanos() {
+        return recentRenderNanos;
+    }
+
+    private void renderLatestFrame() {
+        try {
+            long rasterStart = System.nanoTime();
+            ParticleFrame frame = engine.latestFrame();
+            RenderTarget target = targets.back();
+            renderer.render(target, frame, frame.alpha(rasterStart));
+            target.tick = frame.tick;
+            targets.publish();
+            long rasterNanos = System.nanoTime() - rasterStart;
+            metrics.record(FrameMetrics.Phase.RASTER, rasterNanos);
+            recentRenderNanos += (rasterNanos - recentRenderNanos) * RECENT_WEIGHT;
+        } finally {
+            inFlight.set(false);
+        }
+        onRendered.run();
+    }
+}
@@ -0,0 +1,11 @@
+class ScalarPhysicsKernel implements PhysicsKernel {
+    @Override
+    public String name() {
+        return "scalar";
+    }
+
+    @Override
+    public void step(ParticleStore store, int from, int to, double deltaTime, int canvasWidth, int canvasHeight) {
+        store.update(from, to, deltaTime, canvasWidth, canvasHeight);
+    }
+}
@@ -0,0 +1,143 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+class Scenario {
+    static final class Event {
+        final double interval;
+        final double until;
+        final double lifetime;
+        private final Supplier<ParticleBatch> spawn;
+        private double nextTime;
+
+        Event(double time, double interval, double until, double lifetime, String spec) {
+            this.nextTime = time;
+            this.interval = interval;
+            this.until = until;
+            this.lifetime = lifetime;
+            this.spawn = HeadlessSimulator.parseSpec(spec);
+        }
+    }
+
+    double budgetMillis = 1000.0 / Constants.TARGET_FPS;
+    double windowSeconds = 1.0;
+    double durationSeconds = 600.0;
+    double warmupSeconds = 2.0;
+    final List<Event> events = new ArrayList<>();
+
+    static Scenario load(Path file) throws IOException {
+        Scenario scenario = new Scenario();
+        List<String> lines = Files.readAllLines(file);
+        for (int i = 0; i < lines.size(); i++) {
+            try {
+                scenario.parseLine(lines.get(i));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Line " + (i + 1) + ": invalid number in: " + lines.get(i).trim());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Line " + (i + 1) + ": " + e.getMessage());
+            }
+        }
+        return scenario;
+    }
+
+    private void parseLine(String line) {
+        int comment = line.indexOf('#');
+        if (comment >= 0) line = line.substring(0, comment);
+        String[] tokens = line.trim().split("\\s+");
+        if (tokens[0].isEmpty()) return;
+
+        switch (tokens[0]) {
+            case "budget":
+                expectTokens(tokens, 2);
+                budgetMillis = positive(tokens[1], "Frame budget");
+                break;
+            case "window":
+                expectTokens(tokens, 2);
+                windowSeconds = positive(tokens[1], "Window length");
+                break;
+            case "duration":
+                expectTokens(tokens, 2);
+                durationSeconds = positive(tokens[1], "Duration");
+                break;
+            case "warmup":
+                expectTokens(tokens, 2);
+                warmupSeconds = nonNegative(tokens[1], "Warm-up");
+                break;
+            case "at":
+                parseEvent(tokens, false);
+                break;
+            case "every":
+                parseEvent(tokens, true);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown directive: " + tokens[0]);
+        }
+    }
+
+    private void parseEvent(String[] tokens, boolean repeating) {
+        if (tokens.length < 3 || tokens.length % 2 == 0) {
+            throw new IllegalArgumentException(repeating
+                    ? "Expected: every <seconds> <spec> [from <seconds>] [until <seconds>] [ttl <seconds>]"
+                    : "Expected: at <seconds> <spec> [ttl <seconds>]");
+        }
+        double time = repeating ? positive(tokens[1], "Spawn interval") : nonNegative(tokens[1], "Spawn time");
+        double from = repeating ? 0.0 : time;
+        double until = repeating ? Double.POSITIVE_INFINITY : time;
+        double lifetime = Constants.PARTICLE_LIFETIME;
+        for (int i = 3; i < tokens.length; i += 2) {
+            if (!repeating && !tokens[i].equals("ttl")) throw new IllegalArgumentException("Unknown option: " + tokens[i]);
+            switch (tokens[i]) {
+                case "from":
+                    from = nonNegative(tokens[i + 1], "Start time");
+                    break;
+                case "until":
+                    until = nonNegative(tokens[i + 1], "End time");
+                    break;
+                case "ttl":
+                    lifetime = nonNegative(tokens[i + 1], "Lifetime");
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + tokens[i]);
+            }
+        }
+        if (until < from) throw new IllegalArgumentException("End time must not be before start time.");
+        events.add(new Event(from, repeating ? time : 0.0, until, lifetime, tokens[2]));
+    }
+
+    int fireDue(SimulationEngine engine, double time) {
+        int fired = 0;
+        for (Event event : events) {
+            while (event.nextTime <= time && event.nextTime <= event.until) {
+                engine.addParticles(event.spawn, event.lifetime);
+                fired++;
+                if (event.interval == 0.0) {
+                    event.nextTime = Double.POSITIVE_INFINITY;
+                } else {
+                    event.nextTime += event.interval;
+                }
+            }
+        }
+        return fired;
+    }
+
+    private static void expectTokens(String[] tokens, int expected) {
+        if (tokens.length != expected) {
+            throw new IllegalArgumentException("Expected " + (expected - 1) + " value(s) after " + tokens[0]);
+        }
+    }
+
+    private static double positive(String token, String name) {
+        double value = Double.parseDouble(token);
+        if (!(value > 0)) throw new IllegalArgumentException(name + " must be positive.");
+        return value;
+    }
+
+    private static double nonNegative(String token, String name) {
+        double value = Double.parseDouble(token);
+        if (!(value >= 0)) throw new IllegalArgumentException(name + " must not be negative.");
+        return value;
+    }
+}
@@ -0,0 +1,179 @@
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+
+public class ScenarioRunner {
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: ScenarioRunner <scenario> [<report.csv>]",
+            "  budget <ms>                 frame budget (default one frame at the target FPS)",
+            "  window <seconds>            length of each sample window (default 1)",
+            "  duration <seconds>          stop after this much simulated time (default 600)",
+            "  warmup <seconds>            windows ending before this never stop the run (default 2)",
+            "  at <seconds> <spec> [ttl <seconds>]",
+            "                              spawn once",
+            "  every <seconds> <spec> [from <seconds>] [until <seconds>] [ttl <seconds>]",
+            "                              spawn repeatedly; ttl removes each particle after that long",
+            "  spec is random:n, between:..., angles:... or velocities:... as for HeadlessSimulator");
+    private static final int BACKGROUND = 0xFFEEEEEE;
+    private static final int FOREGROUND = 0xFF000000;
+
+    private static final class Sample {
+        final double seconds;
+        final int particles;
+        final long frames;
+        final double meanMillis;
+        final double p99Millis;
+        final double maxMillis;
+        final long heapBytes;
+
+        Sample(double seconds, int particles, long frames, double meanMillis, double p99Millis, double maxMillis, long heapBytes) {
+            this.seconds = seconds;
+            this.particles = particles;
+            this.frames = frames;
+            this.meanMillis = meanMillis;
+            this.p99Millis = p99Millis;
+            this.maxMillis = maxMillis;
+            this.heapBytes = heapBytes;
+        }
+
+        double fps() {
+            return 1000.0 / meanMillis;
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+
+        try {
+            Scenario scenario = Scenario.load(Paths.get(args[0]));
+            List<Sample> samples = run(scenario);
+            report(scenario, samples);
+            if (args.length == 2) {
+                writeCsv(args[1], samples);
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(1);
+        } catch (IOException e) {
+            System.err.println("Scenario failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static List<Sample> run(Scenario scenario) {
+        SimulationEngine engine = new SimulationEngine(1280, 720);
+        ForkJoinPool renderingThreadPool = new ForkJoinPool();
+        RenderPipeline.RenderTarget target = new RenderPipeline.RenderTarget(engine.width, engine.height);
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        LatencyHistogram frameTimes = new LatencyHistogram();
+        List<Sample> samples = new ArrayList<>();
+
+        System.out.printf("Frame budget: %.2f ms, window: %.1f s, warm-up: %.1f s, physics: %d Hz%n",
+                scenario.budgetMillis, scenario.windowSeconds, scenario.warmupSeconds, Constants.PHYSICS_HZ);
+        System.out.printf("%8s %10s %7s %9s %9s %9s %8s %9s%n",
+                "Time s", "Particles", "Frames", "Mean ms", "p99 ms", "Max ms", "FPS", "Heap MiB");
+
+        long stepAccumulator = 0;
+        long windowNanos = 0;
+        double nextWindow = scenario.windowSeconds;
+        try {
+            while (true) {
+                double time = engine.getTick() / (double) Constants.PHYSICS_HZ;
+                if (scenario.fireDue(engine, time) > 0) {
+                    engine.awaitPendingSpawns();
+                }
+
+                long frameStart = System.nanoTime();
+                stepAccumulator += Constants.OPTIMAL_TIME;
+                while (stepAccumulator >= Constants.PHYSICS_STEP_NANOS) {
+                    engine.step(Constants.PHYSICS_TIME_STEP);
+                    stepAccumulator -= Constants.PHYSICS_STEP_NANOS;
+                }
+                ParticleFrame frame = engine.latestFrame();
+                if (frame.count >= Constants.DENSITY_THRESHOLD) {
+                    target.densityRasterizer.render(frame, 1.0, BACKGROUND, renderingThreadPool);
+                } else {
+                    target.rasterizer.render(frame, 1.0, BACKGROUND, FOREGROUND, renderingThreadPool);
+                }
+                long frameNanos = System.nanoTime() - frameStart;
+                frameTimes.record(frameNanos);
+                windowNanos += frameNanos;
+
+                time = engine.getTick() / (double) Constants.PHYSICS_HZ;
+                if (time < nextWindow) continue;
+
+                System.gc();
+                long frames = frameTimes.count();
+                Sample sample = new Sample(time, engine.getParticleCount(), frames, windowNanos / 1e6 / frames,
+                        frameTimes.percentile(99) / 1e6, frameTimes.max() / 1e6, memory.getHeapMemoryUsage().getUsed());
+                samples.add(sample);
+                System.out.printf("%8.1f %10d %7d %9.2f %9.2f %9.2f %8.1f %9.1f%n", sample.seconds, sample.particles,
+                        sample.frames, sample.meanMillis, sample.p99Millis, sample.maxMillis, sample.fps(),
+                        sample.heapBytes / (1024.0 * 1024.0));
+                frameTimes.reset();
+                windowNanos = 0;
+                nextWindow += scenario.windowSeconds;
+
+                if (overBudget(scenario, sample) || time >= scenario.durationSeconds) break;
+            }
+        } finally {
+            engine.shutdown();
+            renderingThreadPool.shutdown();
+        }
+        return samples;
+    }
+
+    private static void report(Scenario scenario, List<Sample> samples) {
+        Sample best = null;
+        long peakHeap = 0;
+        for (Sample sample : samples) {
+            peakHeap = Math.max(peakHeap, sample.heapBytes);
+            if (sample.seconds < scenario.warmupSeconds) continue;
+            if (overBudget(scenario, sample)) break;
+            best = sample;
+        }
+        Sample last = samples.get(samples.size() - 1);
+
+        System.out.println();
+        if (overBudget(scenario, last)) {
+            System.out.printf("Budget exceeded at %.1f s with %d particles (%.2f ms mean)%n",
+                    last.seconds, last.particles, last.meanMillis);
+        } else {
+            System.out.printf("Budget held for the whole run (%.1f s)%n", last.seconds);
+        }
+        if (best == null) {
+            System.out.println("Max sustainable particles: none (over budget as soon as the warm-up ended)");
+        } else {
+            System.out.printf("Max sustainable particles: %d (%.2f ms mean, %.1f FPS, %.1f MiB heap)%n",
+                    best.particles, best.meanMillis, best.fps(), best.heapBytes / (1024.0 * 1024.0));
+        }
+        System.out.printf("Peak live heap: %.1f MiB of %.1f MiB max%n",
+                peakHeap / (1024.0 * 1024.0), Runtime.getRuntime().maxMemory() / (1024.0 * 1024.0));
+    }
+
+    private static boolean overBudget(Scenario scenario, Sample sample) {
+        return sample.seconds >= scenario.warmupSeconds && sample.meanMillis > scenario.budgetMillis;
+    }
+
+    private static void writeCsv(String file, List<Sample> samples) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(Paths.get(file)))) {
+            out.println("seconds,particles,frames,mean_ms,p99_ms,max_ms,fps,heap_bytes");
+            for (Sample sample : samples) {
+                out.printf(Locale.ROOT, "%.3f,%d,%d,%.3f,%.3f,%.3f,%.2f,%d%n", sample.seconds, sample.particles, sample.frames,
+                        sample.meanMillis, sample.p99Millis, sample.maxMillis, sample.fps(), sample.heapBytes);
+            }
+        }
+        System.out.printf("Report written to %s%n", file);
+    }
+}
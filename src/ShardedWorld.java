@@ -0,0 +1,144 @@
+class ShardedWorld {
+    private static final int MIN_SHARD_HEIGHT = 32;
+
+    interface ShardTask {
+        void run(Shard shard);
+    }
+
+    static final class Shard {
+        final int index;
+        final int minRow;
+        final int maxRow;
+        final ParticleStore particles = new ParticleStore();
+        final ParticleStore toLower = new ParticleStore();
+        final ParticleStore toUpper = new ParticleStore();
+
+        Shard(int index, int minRow, int maxRow) {
+            this.index = index;
+            this.minRow = minRow;
+            this.maxRow = maxRow;
+        }
+    }
+
+    private final int height;
+    private final Shard[] shards;
+    private final int[] shardOfRow;
+
+    public ShardedWorld(int height, int shardCount) {
+        this.height = height;
+        int count = Math.max(1, Math.min(shardCount, height / MIN_SHARD_HEIGHT));
+        this.shards = new Shard[count];
+        for (int i = 0; i < count; i++) {
+            int minRow = i == 0 ? Integer.MIN_VALUE : firstRow(i, count);
+            int maxRow = i == count - 1 ? Integer.MAX_VALUE : firstRow(i + 1, count);
+            shards[i] = new Shard(i, minRow, maxRow);
+        }
+        this.shardOfRow = new int[height];
+        for (int row = 0; row < height; row++) {
+            shardOfRow[row] = (int) ((long) row * count / height);
+        }
+    }
+
+    private int firstRow(int shard, int count) {
+        return (int) (((long) shard * height + count - 1) / count);
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    public Shard shard(int index) {
+        return shards[index];
+    }
+
+    public int size() {
+        int size = 0;
+        for (Shard shard : shards) {
+            size += shard.particles.size();
+        }
+        return size;
+    }
+
+    public int shardOf(int y) {
+        return shardOfRow[Math.max(0, Math.min(height - 1, y))];
+    }
+
+    public void load(ParticleStore store) {
+        for (Shard shard : shards) {
+            shard.particles.clear();
+        }
+        for (int i = 0; i < store.size(); i++) {
+            shards[shardOf(store.y[i])].particles.add(store, i);
+        }
+    }
+
+    public void store(ParticleStore store) {
+        store.clear();
+        for (Shard shard : shards) {
+            ParticleStore particles = shard.particles;
+            for (int i = 0; i < particles.size(); i++) {
+                store.add(particles, i);
+            }
+            particles.clear();
+            particles.trim();
+        }
+    }
+
+    public void add(ParticleBatch batch, long tick) {
+        for (int k = 0; k < batch.size; k++) {
+            shards[shardOf(batch.y[k])].particles.add(batch, k, tick);
+        }
+    }
+
+    public void run(PhysicsWorkers workers, ShardTask task) {
+        int count = size();
+        int partitions = workers.partitionCount(count);
+        workers.run(count, (partition, from, to) -> {
+            for (int i = partition; i < shards.length; i += partitions) {
+                task.run(shards[i]);
+            }
+        });
+    }
+
+    public void step(PhysicsKernel kernel, PhysicsWorkers workers, double deltaTime, int width, int height) {
+        run(workers, shard -> {
+            ParticleStore particles = shard.particles;
+            kernel.step(particles, 0, particles.size(), deltaTime, width, height);
+            migrate(shard);
+        });
+        run(workers, this::receive);
+    }
+
+    // A particle that crossed more than one strip in a tick is handed on one neighbour per tick.
+    private void migrate(Shard shard) {
+        ParticleStore particles = shard.particles;
+        int minRow = shard.minRow;
+        int maxRow = shard.maxRow;
+        int i = 0;
+        while (i < particles.size()) {
+            int y = particles.y[i];
+            if (y >= minRow && y < maxRow) {
+                i++;
+                continue;
+            }
+            (y < minRow ? shard.toLower : shard.toUpper).add(particles, i);
+            particles.removeAt(i);
+        }
+    }
+
+    private void receive(Shard shard) {
+        if (shard.index > 0) {
+            drain(shards[shard.index - 1].toUpper, shard.particles);
+        }
+        if (shard.index < shards.length - 1) {
+            drain(shards[shard.index + 1].toLower, shard.particles);
+        }
+    }
+
+    private static void drain(ParticleStore edge, ParticleStore particles) {
+        for (int i = 0; i < edge.size(); i++) {
+            particles.add(edge, i);
+        }
+        edge.clear();
+    }
+}
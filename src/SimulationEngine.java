@@ -0,0 +1,665 @@
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+class SimulationEngine {
+    private static final long SPIN_THRESHOLD_NANOS = 100_000;
+    private static final double RECENT_WEIGHT = 0.125;
+    private static final int OFFSCREEN_STEP_INTERVAL = 4;
+
+    final int width;
+    final int height;
+    private final ParticleStore particles = new ParticleStore();
+    private final Queue<ParticleBatch> pendingBatches = new ConcurrentLinkedQueue<>();
+    private final Queue<ParticleRemoval> pendingRemovals = new ConcurrentLinkedQueue<>();
+    // Live particles per batch id; 0 while the batch is still being generated or merged.
+    private final ConcurrentHashMap<Integer, Integer> batchCounts = new ConcurrentHashMap<>();
+    private ParticleRemoval[] removals = new ParticleRemoval[4];
+    private int removalCount = 0;
+    private final boolean[][] matchedFlags;
+    private final int[][] removedIndices;
+    private final int[] removedCounts;
+    private final long[] slotExpiry;
+    private final AtomicInteger nextBatchId = new AtomicInteger();
+    private final FrameExchange<ParticleFrame> frames;
+    private final List<SimulationListener> listeners = new CopyOnWriteArrayList<>();
+    private final PhysicsWorkers physicsWorkers;
+    private final PhysicsKernel physicsKernel;
+    private final ForkJoinPool spawnThreadPool = new ForkJoinPool();
+    private final FrameMetrics metrics = new FrameMetrics();
+    private final CollisionSolver collisionSolver;
+    private final ClosedFormParticles closedForm;
+    private final ShardedWorld world;
+    private final Sprite sprite;
+    private volatile boolean spatialIndexing = false;
+    private volatile boolean explorerMode = false;
+    private volatile boolean lazyOffscreen = false;
+    private volatile boolean replaying = false;
+    private volatile boolean closedFormRequested = false;
+    private boolean closedFormActive = false;
+    private final AtomicLong pendingSkip = new AtomicLong();
+    private int offscreenPhase = 0;
+    private int nearViewport = 0;
+    private int offscreenEnd = 0;
+    private volatile boolean shardingRequested = Constants.SHARDED;
+    private boolean shardedActive = false;
+    private volatile boolean collisions = Constants.COLLISIONS;
+    private boolean collisionsActive = false;
+    private volatile SimulationRecorder recorder;
+    private volatile long lifetimeTicks = Math.round(Constants.PARTICLE_LIFETIME * Constants.PHYSICS_HZ);
+    private long tick = 0;
+    private int lastReportedCount = 0;
+    private volatile int particleCount = 0;
+    private volatile long droppedSteps = 0;
+    private volatile double recentStepNanos = 0;
+
+    public SimulationEngine(int width, int height) {
+        this(width, height, Constants.PHYSICS_WORKERS);
+    }
+
+    public SimulationEngine(int width, int height, int physicsWorkerCount) {
+        this(width, height, physicsWorkerCount, Constants.SEQUENTIAL_THRESHOLD);
+    }
+
+    public SimulationEngine(int width, int height, int physicsWorkerCount, int sequentialThreshold) {
+        this.width = width;
+        this.height = height;
+        this.physicsWorkers = new PhysicsWorkers(physicsWorkerCount, sequentialThreshold);
+        this.physicsKernel = PhysicsKernels.select(Constants.PHYSICS_KERNEL);
+        this.frames = new FrameExchange<>(() -> new ParticleFrame(width, height));
+        this.sprite = new Sprite(width, height, Constants.SPRITE_SPEED);
+        this.collisionSolver = new CollisionSolver(width, height);
+        this.closedForm = new ClosedFormParticles(width, height, Constants.PHYSICS_TIME_STEP, Constants.SPRITE_SPEED);
+        this.world = new ShardedWorld(height, Constants.SHARDS);
+        int slots = Math.max(physicsWorkers.getWorkerCount(), world.shardCount());
+        this.matchedFlags = new boolean[slots][0];
+        this.removedIndices = new int[slots][0];
+        this.removedCounts = new int[slots];
+        this.slotExpiry = new long[slots];
+    }
+
+    public void addListener(SimulationListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(SimulationListener listener) {
+        listeners.remove(listener);
+    }
+
+    public void setSpatialIndexing(boolean spatialIndexing) {
+        this.spatialIndexing = spatialIndexing;
+    }
+
+    public void setExplorerMode(boolean explorerMode) {
+        this.spatialIndexing = explorerMode;
+        this.explorerMode = explorerMode;
+        this.closedFormRequested = explorerMode && Constants.CLOSED_FORM_EXPLORER;
+    }
+
+    public void setLazyOffscreen(boolean lazyOffscreen) {
+        this.lazyOffscreen = lazyOffscreen;
+    }
+
+    public void setReplaying(boolean replaying) {
+        this.replaying = replaying;
+    }
+
+    public boolean isClosedFormActive() {
+        return closedFormActive;
+    }
+
+    public void skipTicks(long ticks) {
+        if (ticks < 0) throw new IllegalArgumentException("Cannot skip a negative number of ticks.");
+        if (!closedFormRequested) throw new IllegalStateException("Skipping ahead needs explorer mode with -Dsimulator.closedFormExplorer=true.");
+        pendingSkip.addAndGet(ticks);
+    }
+
+    public void setCollisions(boolean collisions) {
+        this.collisions = collisions;
+    }
+
+    public boolean isCollisions() {
+        return collisions;
+    }
+
+    public void setSharded(boolean sharded) {
+        this.shardingRequested = sharded;
+    }
+
+    public boolean isSharded() {
+        return shardingRequested;
+    }
+
+    public boolean isShardedActive() {
+        return shardedActive;
+    }
+
+    public int getShardCount() {
+        return world.shardCount();
+    }
+
+    public void setRecorder(SimulationRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    public PhysicsKernel getPhysicsKernel() {
+        return physicsKernel;
+    }
+
+    public FrameMetrics getMetrics() {
+        return metrics;
+    }
+
+    public Sprite getSprite() {
+        return sprite;
+    }
+
+    public ParticleFrame latestFrame() {
+        return frames.latest();
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public int getParticleCount() {
+        return particleCount;
+    }
+
+    public void setParticleLifetime(double seconds) {
+        if (seconds < 0) throw new IllegalArgumentException("Lifetime must not be negative.");
+        lifetimeTicks = Math.round(seconds * Constants.PHYSICS_HZ);
+    }
+
+    public double getParticleLifetime() {
+        return lifetimeTicks / (double) Constants.PHYSICS_HZ;
+    }
+
+    public int addParticle(Particle particle) {
+        return addParticles(ParticleBatch.of(particle));
+    }
+
+    public int addParticles(ParticleBatch batch) {
+        if (batch.id == 0) {
+            batch.id = nextBatchId.incrementAndGet();
+            batch.lifetimeTicks = lifetimeTicks;
+        }
+        if (batch.size > 0) {
+            batchCounts.putIfAbsent(batch.id, 0);
+            pendingBatches.add(batch);
+        } else {
+            batchCounts.remove(batch.id, 0);
+        }
+        return batch.id;
+    }
+
+    public boolean isBatchLive(int id) {
+        return batchCounts.containsKey(id);
+    }
+
+    public int addParticles(Supplier<ParticleBatch> generator) {
+        return addParticles(generator, lifetimeTicks);
+    }
+
+    public int addParticles(Supplier<ParticleBatch> generator, double lifetimeSeconds) {
+        if (lifetimeSeconds < 0) throw new IllegalArgumentException("Lifetime must not be negative.");
+        return addParticles(generator, Math.round(lifetimeSeconds * Constants.PHYSICS_HZ));
+    }
+
+    public int addParticlesBetweenPoints(int n, Point start, Point end, double angle, double velocity) {
+        return addParticles(() -> ParticleBatch.betweenPoints(n, start, end, angle, velocity));
+    }
+
+    public int addParticlesVaryingAngles(int n, Point start, double startAngle, double endAngle, double velocity) {
+        return addParticles(() -> ParticleBatch.varyingAngles(n, start, startAngle, endAngle, velocity));
+    }
+
+    public int addParticlesVaryingVelocities(int n, Point start, double angle, double startVelocity, double endVelocity) {
+        return addParticles(() -> ParticleBatch.varyingVelocities(n, start, angle, startVelocity, endVelocity));
+    }
+
+    private int addParticles(Supplier<ParticleBatch> generator, long lifetime) {
+        int id = nextBatchId.incrementAndGet();
+        batchCounts.put(id, 0);
+        spawnThreadPool.execute(() -> addParticles(generator.get(), id, lifetime));
+        return id;
+    }
+
+    private void addParticles(ParticleBatch batch, int id, long lifetime) {
+        batch.id = id;
+        batch.lifetimeTicks = lifetime;
+        addParticles(batch);
+    }
+
+    public void removeParticles(ParticleRemoval removal) {
+        pendingRemovals.add(removal);
+    }
+
+    public void awaitPendingSpawns() {
+        spawnThreadPool.awaitQuiescence(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        mergePendingParticles();
+    }
+
+    public void start() {
+        start(() -> step(Constants.PHYSICS_TIME_STEP));
+    }
+
+    public void start(Runnable tickAction) {
+        new Thread(() -> runFixedTimestep(tickAction), "simulation").start();
+    }
+
+    private void runFixedTimestep(Runnable tickAction) {
+        long stepNanos = Constants.PHYSICS_STEP_NANOS;
+        long renderNanos = Constants.OPTIMAL_TIME;
+        long previousTime = System.nanoTime();
+        long nextRenderTime = previousTime;
+        long accumulator = 0;
+
+        while (!Thread.currentThread().isInterrupted()) {
+            long now = System.nanoTime();
+            accumulator += now - previousTime;
+            previousTime = now;
+
+            int steps = 0;
+            while (accumulator >= stepNanos && steps < Constants.MAX_CATCH_UP_STEPS) {
+                tickAction.run();
+                accumulator -= stepNanos;
+                steps++;
+            }
+            if (accumulator >= stepNanos) {
+                droppedSteps += accumulator / stepNanos;
+                accumulator %= stepNanos;
+            }
+
+            now = System.nanoTime();
+            if (now - nextRenderTime >= 0) {
+                for (SimulationListener listener : listeners) {
+                    listener.frameReady();
+                }
+                nextRenderTime += renderNanos;
+                if (now - nextRenderTime >= 0) {
+                    nextRenderTime = now + renderNanos;
+                }
+            }
+
+            long nextStepTime = previousTime + (stepNanos - accumulator);
+            waitUntil(Math.min(nextStepTime, nextRenderTime));
+        }
+    }
+
+    private static void waitUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            if (remaining > SPIN_THRESHOLD_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_THRESHOLD_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    public void shutdown() {
+        physicsWorkers.shutdown();
+        spawnThreadPool.shutdown();
+        metrics.shutdown();
+    }
+
+    public long getDroppedSteps() {
+        return droppedSteps;
+    }
+
+    public double getRecentStepNanos() {
+        return recentStepNanos;
+    }
+
+    public void step(double deltaTime) {
+        long stepStart = System.nanoTime();
+        advance(deltaTime);
+        recentStepNanos += (System.nanoTime() - stepStart - recentStepNanos) * RECENT_WEIGHT;
+    }
+
+    private void advance(double deltaTime) {
+        updateModes();
+        SimulationRecorder currentRecorder = recorder;
+        if (currentRecorder != null) {
+            currentRecorder.collisions(tick, collisionsActive);
+        }
+        applyRemovals();
+        mergePendingParticles();
+        if (sprite.step(deltaTime)) {
+            Point position = sprite.getPosition();
+            for (SimulationListener listener : listeners) {
+                listener.spriteMoved(position);
+            }
+        }
+
+        if (closedFormActive) {
+            offscreenPhase = 0;
+            tick += 1 + pendingSkip.getAndSet(0);
+            long snapshotStart = System.nanoTime();
+            publishClosedFormFrame();
+            metrics.record(FrameMetrics.Phase.SNAPSHOT, System.nanoTime() - snapshotStart);
+            return;
+        }
+        pendingSkip.set(0);
+
+        long physicsStart = System.nanoTime();
+        if (shardedActive) {
+            offscreenPhase = 0;
+            world.step(physicsKernel, physicsWorkers, deltaTime, width, height);
+        } else if (recorder == null && !replaying && (offscreenPhase != 0 || (lazyOffscreen && explorerMode && !collisionsActive))) {
+            stepOffscreenLazily(deltaTime);
+        } else {
+            offscreenPhase = 0;
+            stepRange(0, particles.size(), deltaTime);
+        }
+
+        metrics.record(FrameMetrics.Phase.PHYSICS, System.nanoTime() - physicsStart);
+        if (collisionsActive) {
+            metrics.recordCollisionPairs(collisionSolver.solve(particles, physicsWorkers, metrics));
+        }
+
+        long snapshotStart = System.nanoTime();
+        tick++;
+        publishFrame();
+        metrics.record(FrameMetrics.Phase.SNAPSHOT, System.nanoTime() - snapshotStart);
+
+        currentRecorder = recorder;
+        if (currentRecorder != null) {
+            currentRecorder.stepped(tick, particles);
+        }
+    }
+
+    // Particles near the viewport step every tick. The rest are split into blocks, one of which steps per tick
+    // with the whole interval's time, so every particle has advanced equally at the end of each interval.
+    private void stepOffscreenLazily(double deltaTime) {
+        if (offscreenPhase == 0) {
+            partitionNearViewport(deltaTime);
+        }
+        int size = particles.size();
+        int near = Math.min(nearViewport, size);
+        int end = Math.min(offscreenEnd, size);
+        int span = end - near;
+        stepRange(0, near, deltaTime);
+        stepRange(near + span * offscreenPhase / OFFSCREEN_STEP_INTERVAL,
+                near + span * (offscreenPhase + 1) / OFFSCREEN_STEP_INTERVAL, deltaTime * OFFSCREEN_STEP_INTERVAL);
+        stepRange(end, size, deltaTime);
+        offscreenPhase = (offscreenPhase + 1) % OFFSCREEN_STEP_INTERVAL;
+    }
+
+    private void partitionNearViewport(double deltaTime) {
+        Rectangle view = viewport();
+        double viewportStep = Constants.SPRITE_SPEED * deltaTime;
+        int near = 0;
+        for (int i = 0; i < particles.size(); i++) {
+            int x = particles.x[i];
+            int y = particles.y[i];
+            int distance = Math.max(Math.max(view.x - x, x - (view.x + view.width)), Math.max(view.y - y, y - (view.y + view.height)));
+            double speed = Math.sqrt(particles.velocityX[i] * particles.velocityX[i] + particles.velocityY[i] * particles.velocityY[i]);
+            double reach = (speed * deltaTime + viewportStep + 1) * 2 * OFFSCREEN_STEP_INTERVAL + ParticleStore.PARTICLE_DIAMETER;
+            if (distance <= reach) {
+                particles.swap(i, near++);
+            }
+        }
+        nearViewport = near;
+        offscreenEnd = particles.size();
+    }
+
+    private void stepRange(int start, int end, double deltaTime) {
+        physicsWorkers.run(end - start, (from, to) -> physicsKernel.step(particles, start + from, start + to, deltaTime, width, height));
+    }
+
+    public void restore(ParticleSnapshot snapshot) {
+        pendingBatches.clear();
+        pendingRemovals.clear();
+        particles.restore(snapshot);
+        batchCounts.clear();
+        for (int i = 0; i < particles.size(); i++) {
+            batchCounts.merge(particles.batchId[i], 1, Integer::sum);
+        }
+        offscreenPhase = 0;
+        tick = snapshot.tick;
+        if (closedFormActive) {
+            closedForm.load(particles, tick, physicsWorkers);
+        }
+        if (shardedActive) {
+            loadShards();
+        }
+        publishFrame();
+        reportParticleCount();
+    }
+
+    private void updateModes() {
+        collisionsActive = collisions;
+        boolean closedFormWanted = closedFormRequested && !collisionsActive && recorder == null;
+        boolean shardedWanted = shardingRequested && !closedFormWanted && !collisionsActive && recorder == null;
+        if (closedFormActive && !closedFormWanted) {
+            closedForm.store(particles, tick, physicsWorkers);
+            closedFormActive = false;
+        }
+        if (shardedActive && !shardedWanted) {
+            world.store(particles);
+            shardedActive = false;
+        }
+        if (closedFormWanted && !closedFormActive) {
+            closedForm.load(particles, tick, physicsWorkers);
+            closedFormActive = true;
+        }
+        if (shardedWanted && !shardedActive) {
+            loadShards();
+            shardedActive = true;
+        }
+    }
+
+    // The flat store stays empty while sharded so its capacity is not held twice.
+    private void loadShards() {
+        world.load(particles);
+        particles.clear();
+        particles.trim();
+    }
+
+    private Rectangle viewport() {
+        Point position = sprite.getPosition();
+        if (position == null) {
+            position = new Point(width / 2, height / 2);
+        }
+        int viewportX = ExplorerProtocol.viewportX(position.x, width);
+        int viewportY = ExplorerProtocol.viewportY(position.y, height);
+        return new Rectangle(viewportX, height - viewportY - (ExplorerProtocol.GRID_HEIGHT - 1),
+                ExplorerProtocol.GRID_WIDTH - 1, ExplorerProtocol.GRID_HEIGHT - 1);
+    }
+
+    private void publishClosedFormFrame() {
+        Rectangle view = viewport();
+        ParticleFrame frame = frames.back();
+        closedForm.captureViewport(frame, tick, view.x, view.y, view.x + view.width, view.y + view.height);
+        frames.publish();
+    }
+
+    private void publishFrame() {
+        ParticleFrame frame = frames.back();
+        if (shardedActive) {
+            frame.capture(world, tick);
+        } else {
+            frame.capture(particles, tick);
+        }
+        if (spatialIndexing) {
+            frame.index();
+        }
+        frames.publish();
+    }
+
+    private void mergePendingParticles() {
+        SimulationRecorder currentRecorder = recorder;
+        ParticleBatch batch;
+        while ((batch = pendingBatches.poll()) != null) {
+            if (shardedActive) {
+                world.add(batch, tick);
+            } else {
+                particles.addAll(batch, tick);
+            }
+            if (closedFormActive) {
+                closedForm.add(batch, tick);
+            }
+            batchCounts.merge(batch.id, batch.size, Integer::sum);
+            if (currentRecorder != null) {
+                currentRecorder.spawned(tick, batch);
+            }
+        }
+        reportParticleCount();
+    }
+
+    private void applyRemovals() {
+        // Compaction moves particles between the lazy blocks, so it waits for the interval to finish.
+        if (offscreenPhase != 0) {
+            return;
+        }
+        SimulationRecorder currentRecorder = recorder;
+        removalCount = 0;
+        boolean removeAll = false;
+        ParticleRemoval removal;
+        while ((removal = pendingRemovals.poll()) != null) {
+            if (currentRecorder != null) {
+                currentRecorder.removed(tick, removal);
+            }
+            removeAll |= removal.kind == ParticleRemoval.Kind.ALL;
+            if (removalCount == removals.length) {
+                removals = Arrays.copyOf(removals, removalCount * 2);
+            }
+            removals[removalCount++] = removal;
+        }
+        if (removeAll) {
+            removalCount = 0;
+            batchCounts.values().removeIf(count -> count > 0);
+            if (shardedActive) {
+                world.run(physicsWorkers, shard -> shard.particles.clear());
+            } else {
+                particles.clear();
+                if (closedFormActive) {
+                    closedForm.clear();
+                }
+            }
+        }
+
+        if (shardedActive) {
+            world.run(physicsWorkers, shard -> {
+                ParticleStore store = shard.particles;
+                if (removalCount > 0 || tick >= store.nextExpiry) {
+                    markRemoved(shard.index, store, 0, store.size(), false);
+                    removeMarked(store, shard.index, 1, false);
+                }
+                store.trim();
+            });
+        } else {
+            if (removalCount > 0 || tick >= particles.nextExpiry) {
+                boolean lazy = closedFormActive;
+                physicsWorkers.run(particles.size(), (partition, from, to) -> markRemoved(partition, particles, from, to, lazy));
+                removeMarked(particles, 0, physicsWorkers.partitionCount(particles.size()), lazy);
+            }
+            particles.trim();
+        }
+    }
+
+    // Collects, per slot, the indices in [from, to) that match a removal or have expired, and the earliest
+    // expiry among the rest. Slots are physics partitions, or shards when sharded.
+    private void markRemoved(int slot, ParticleStore store, int from, int to, boolean lazy) {
+        long now = tick;
+        boolean expiring = now >= store.nextExpiry;
+        boolean[] matched = matchedFlags[slot];
+        if (matched.length < to - from) {
+            matched = new boolean[store.capacity()];
+            matchedFlags[slot] = matched;
+        }
+        Arrays.fill(matched, 0, to - from, false);
+        for (int r = 0; r < removalCount; r++) {
+            matchRemoval(removals[r], store, from, to, matched, lazy);
+        }
+
+        int[] marked = removedIndices[slot];
+        int count = 0;
+        long nextExpiry = ParticleStore.NEVER;
+        for (int i = from; i < to; i++) {
+            if (matched[i - from] || expiring && store.expiresAt[i] <= now) {
+                if (count == marked.length) {
+                    marked = Arrays.copyOf(marked, Math.max(16, count * 2));
+                }
+                marked[count++] = i;
+            } else if (expiring) {
+                nextExpiry = Math.min(nextExpiry, store.expiresAt[i]);
+            }
+        }
+        removedIndices[slot] = marked;
+        removedCounts[slot] = count;
+        slotExpiry[slot] = expiring ? nextExpiry : store.nextExpiry;
+    }
+
+    private void matchRemoval(ParticleRemoval removal, ParticleStore store, int from, int to, boolean[] matched, boolean lazy) {
+        if (removal.kind != ParticleRemoval.Kind.REGION) {
+            for (int i = from; i < to; i++) {
+                matched[i - from] |= store.batchId[i] == removal.batchId;
+            }
+        } else if (lazy) {
+            for (int i = from; i < to; i++) {
+                matched[i - from] |= removal.matches(0, closedForm.positionX(i, tick), closedForm.positionY(i, tick));
+            }
+        } else {
+            for (int i = from; i < to; i++) {
+                matched[i - from] |= removal.matches(0, store.x[i], store.y[i]);
+            }
+        }
+    }
+
+    // Removes from the highest index down, so the last particle moved into each gap is always a survivor.
+    private void removeMarked(ParticleStore store, int firstSlot, int slots, boolean lazy) {
+        long nextExpiry = ParticleStore.NEVER;
+        int runBatch = 0;
+        int runLength = 0;
+        for (int slot = firstSlot + slots - 1; slot >= firstSlot; slot--) {
+            int[] marked = removedIndices[slot];
+            for (int k = removedCounts[slot] - 1; k >= 0; k--) {
+                int batch = store.batchId[marked[k]];
+                if (batch != runBatch) {
+                    releaseBatch(runBatch, runLength);
+                    runBatch = batch;
+                    runLength = 0;
+                }
+                runLength++;
+                store.removeAt(marked[k]);
+                if (lazy) {
+                    closedForm.removeAt(marked[k]);
+                }
+            }
+            nextExpiry = Math.min(nextExpiry, slotExpiry[slot]);
+        }
+        releaseBatch(runBatch, runLength);
+        store.nextExpiry = nextExpiry;
+    }
+
+    private void releaseBatch(int id, int removed) {
+        if (removed > 0) {
+            batchCounts.computeIfPresent(id, (key, count) -> count > removed ? count - removed : null);
+        }
+    }
+
+    private void reportParticleCount() {
+        int count = shardedActive ? world.size() : particles.size();
+        particleCount = count;
+        if (count != lastReportedCount) {
+            lastReportedCount = count;
+            for (SimulationListener listener : listeners) {
+                listener.particleCountChanged(count);
+            }
+        }
+    }
+}
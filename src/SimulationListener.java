@@ -0,0 +1,12 @@
+import java.awt.*;
+
+interface SimulationListener {
+    default void frameReady() {
+    }
+
+    default void particleCountChanged(int count) {
+    }
+
+    default void spriteMoved(Point position) {
+    }
+}
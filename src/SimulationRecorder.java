@@ -0,0 +1,245 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+class SimulationRecorder implements AutoCloseable {
+    private static final int SPARE_KEYFRAMES = 2;
+
+    private final FileChannel channel;
+    private final int keyframeInterval;
+    private final Queue<Object> records = new ConcurrentLinkedQueue<>();
+    private final Queue<ParticleSnapshot> spareSnapshots = new ConcurrentLinkedQueue<>();
+    private final Thread writer;
+    private MappedByteBuffer mapped;
+    private long mappedBase = 0;
+    private boolean keyframeDue = true;
+    private boolean collisionsRecorded = false;
+    private boolean recordedCollisions = false;
+    private volatile long lastTick = 0;
+    private volatile long droppedKeyframes = 0;
+    private volatile boolean closed = false;
+    private volatile IOException failure;
+
+    private static final class SpawnRecord {
+        final long tick;
+        final ParticleBatch batch;
+
+        SpawnRecord(long tick, ParticleBatch batch) {
+            this.tick = tick;
+            this.batch = batch;
+        }
+    }
+
+    private static final class RemoveRecord {
+        final long tick;
+        final ParticleRemoval removal;
+
+        RemoveRecord(long tick, ParticleRemoval removal) {
+            this.tick = tick;
+            this.removal = removal;
+        }
+    }
+
+    private static final class CollisionsRecord {
+        final long tick;
+        final boolean enabled;
+
+        CollisionsRecord(long tick, boolean enabled) {
+            this.tick = tick;
+            this.enabled = enabled;
+        }
+    }
+
+    public SimulationRecorder(Path file, int width, int height, int keyframeInterval) throws IOException {
+        if (keyframeInterval < 1) throw new IllegalArgumentException("Keyframe interval must be at least 1 tick.");
+
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.keyframeInterval = keyframeInterval;
+        for (int i = 0; i < SPARE_KEYFRAMES; i++) {
+            spareSnapshots.add(new ParticleSnapshot());
+        }
+
+        ensureMapped(SimulationRecording.HEADER_BYTES);
+        mapped.putInt(SimulationRecording.MAGIC);
+        mapped.putInt(SimulationRecording.VERSION);
+        mapped.putInt(width);
+        mapped.putInt(height);
+        mapped.putInt(Constants.PHYSICS_HZ);
+        mapped.putInt(keyframeInterval);
+
+        writer = new Thread(this::writeLoop, "recorder");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public void spawned(long tick, ParticleBatch batch) {
+        if (closed || batch.size == 0) return;
+        records.add(new SpawnRecord(tick, batch));
+        LockSupport.unpark(writer);
+    }
+
+    public void removed(long tick, ParticleRemoval removal) {
+        if (closed) return;
+        records.add(new RemoveRecord(tick, removal));
+        LockSupport.unpark(writer);
+    }
+
+    public void collisions(long tick, boolean enabled) {
+        if (closed || (collisionsRecorded && recordedCollisions == enabled)) return;
+        collisionsRecorded = true;
+        recordedCollisions = enabled;
+        records.add(new CollisionsRecord(tick, enabled));
+        LockSupport.unpark(writer);
+    }
+
+    public void stepped(long tick, ParticleStore store) {
+        lastTick = tick;
+        if (closed || !(keyframeDue || tick % keyframeInterval == 0)) return;
+
+        ParticleSnapshot snapshot = spareSnapshots.poll();
+        if (snapshot == null) {
+            keyframeDue = true;
+            droppedKeyframes++;
+            return;
+        }
+        snapshot.copyFrom(store, tick);
+        records.add(snapshot);
+        keyframeDue = false;
+        LockSupport.unpark(writer);
+    }
+
+    public long getDroppedKeyframes() {
+        return droppedKeyframes;
+    }
+
+    private void writeLoop() {
+        try {
+            while (true) {
+                Object record = records.poll();
+                if (record == null) {
+                    if (closed) {
+                        if (records.isEmpty()) break;
+                        continue;
+                    }
+                    LockSupport.park(this);
+                } else if (record instanceof SpawnRecord) {
+                    writeSpawn((SpawnRecord) record);
+                } else if (record instanceof RemoveRecord) {
+                    writeRemove((RemoveRecord) record);
+                } else if (record instanceof CollisionsRecord) {
+                    writeCollisions((CollisionsRecord) record);
+                } else {
+                    ParticleSnapshot snapshot = (ParticleSnapshot) record;
+                    writeKeyframe(snapshot);
+                    spareSnapshots.add(snapshot);
+                }
+            }
+            writeHeader(SimulationRecording.END, lastTick, 0);
+            channel.truncate(mappedBase + mapped.position());
+        } catch (IOException e) {
+            failure = e;
+            closed = true;
+            records.clear();
+        } finally {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                if (failure == null) failure = e;
+            }
+        }
+    }
+
+    private void writeSpawn(SpawnRecord record) throws IOException {
+        ParticleBatch batch = record.batch;
+        int n = batch.size;
+        writeHeader(SimulationRecording.SPAWN, record.tick, n);
+        ensureMapped(SimulationRecording.payloadBytes(SimulationRecording.SPAWN, n));
+        mapped.putInt(batch.id);
+        mapped.putLong(batch.lifetimeTicks);
+        mapped.asIntBuffer().put(batch.x, 0, n);
+        skip(n * Integer.BYTES);
+        mapped.asIntBuffer().put(batch.y, 0, n);
+        skip(n * Integer.BYTES);
+        mapped.asDoubleBuffer().put(batch.velocityX, 0, n);
+        skip(n * Double.BYTES);
+        mapped.asDoubleBuffer().put(batch.velocityY, 0, n);
+        skip(n * Double.BYTES);
+    }
+
+    private void writeKeyframe(ParticleSnapshot snapshot) throws IOException {
+        int n = snapshot.count;
+        writeHeader(SimulationRecording.KEYFRAME, snapshot.tick, n);
+        ensureMapped(SimulationRecording.payloadBytes(SimulationRecording.KEYFRAME, n));
+        for (int[] values : new int[][]{snapshot.x, snapshot.y, snapshot.previousX, snapshot.previousY}) {
+            mapped.asIntBuffer().put(values, 0, n);
+            skip(n * Integer.BYTES);
+        }
+        for (double[] values : new double[][]{snapshot.accumulatedX, snapshot.accumulatedY, snapshot.velocityX, snapshot.velocityY}) {
+            mapped.asDoubleBuffer().put(values, 0, n);
+            skip(n * Double.BYTES);
+        }
+        mapped.asLongBuffer().put(snapshot.expiresAt, 0, n);
+        skip(n * Long.BYTES);
+        mapped.asIntBuffer().put(snapshot.batchId, 0, n);
+        skip(n * Integer.BYTES);
+    }
+
+    private void writeRemove(RemoveRecord record) throws IOException {
+        ParticleRemoval removal = record.removal;
+        writeHeader(SimulationRecording.REMOVE, record.tick, 0);
+        ensureMapped(SimulationRecording.REMOVE_BYTES);
+        mapped.put((byte) removal.kind.ordinal());
+        mapped.putInt(removal.batchId);
+        mapped.putInt(removal.minX);
+        mapped.putInt(removal.minY);
+        mapped.putInt(removal.maxX);
+        mapped.putInt(removal.maxY);
+    }
+
+    private void writeCollisions(CollisionsRecord record) throws IOException {
+        writeHeader(SimulationRecording.COLLISIONS, record.tick, 0);
+        ensureMapped(SimulationRecording.COLLISIONS_BYTES);
+        mapped.put((byte) (record.enabled ? 1 : 0));
+    }
+
+    private void writeHeader(byte type, long tick, int count) throws IOException {
+        ensureMapped(SimulationRecording.RECORD_HEADER_BYTES);
+        mapped.put(type);
+        mapped.putLong(tick);
+        mapped.putInt(count);
+    }
+
+    private void skip(int bytes) {
+        mapped.position(mapped.position() + bytes);
+    }
+
+    private void ensureMapped(long bytes) throws IOException {
+        if (bytes > Integer.MAX_VALUE) throw new IllegalArgumentException("Record is too large to map: " + bytes + " bytes.");
+        if (mapped != null && mapped.remaining() >= bytes) return;
+
+        if (mapped != null) {
+            mappedBase += mapped.position();
+        }
+        mapped = channel.map(FileChannel.MapMode.READ_WRITE, mappedBase, Math.max(SimulationRecording.MAP_CHUNK_BYTES, bytes));
+    }
+
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) throw new UncheckedIOException("Recording failed", failure);
+    }
+}
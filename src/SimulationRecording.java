@@ -0,0 +1,223 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+class SimulationRecording implements AutoCloseable {
+    static final int MAGIC = 0x50534D52;
+    static final int VERSION = 3;
+    static final int HEADER_BYTES = 6 * Integer.BYTES;
+    static final int RECORD_HEADER_BYTES = Byte.BYTES + Long.BYTES + Integer.BYTES;
+    static final byte SPAWN = 1;
+    static final byte KEYFRAME = 2;
+    static final byte END = 3;
+    static final byte REMOVE = 4;
+    static final byte COLLISIONS = 5;
+    static final int SPAWN_HEADER_BYTES = Integer.BYTES + Long.BYTES;
+    static final int REMOVE_BYTES = Byte.BYTES + 5 * Integer.BYTES;
+    static final int COLLISIONS_BYTES = Byte.BYTES;
+    static final long MAP_CHUNK_BYTES = 64L << 20;
+
+    static final class Record {
+        final byte type;
+        final long tick;
+        final int count;
+        final long offset;
+
+        Record(byte type, long tick, int count, long offset) {
+            this.type = type;
+            this.tick = tick;
+            this.count = count;
+            this.offset = offset;
+        }
+
+        long payloadOffset() {
+            return offset + RECORD_HEADER_BYTES;
+        }
+
+        long nextOffset() {
+            return payloadOffset() + payloadBytes(type, count);
+        }
+    }
+
+    final int width;
+    final int height;
+    final int physicsHz;
+    final int keyframeInterval;
+    private final FileChannel channel;
+    private final long size;
+    private final TreeMap<Long, Long> keyframes = new TreeMap<>();
+    private final Set<Long> keyframesWithCollisions = new HashSet<>();
+    private long lastTick = 0;
+    private long endOffset;
+    private MappedByteBuffer window;
+    private long windowBase = -1;
+
+    private SimulationRecording(FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.size = channel.size();
+        if (size < HEADER_BYTES) throw new IllegalArgumentException("Recording is too short to contain a header.");
+
+        ByteBuffer header = map(0, HEADER_BYTES);
+        if (header.getInt() != MAGIC) throw new IllegalArgumentException("Not a particle simulator recording.");
+        int version = header.getInt();
+        if (version != VERSION) throw new IllegalArgumentException("Unsupported recording version: " + version);
+        width = header.getInt();
+        height = header.getInt();
+        physicsHz = header.getInt();
+        keyframeInterval = header.getInt();
+
+        index();
+        if (keyframes.isEmpty()) throw new IllegalArgumentException("Recording contains no keyframes.");
+    }
+
+    public static SimulationRecording open(Path file) throws IOException {
+        return new SimulationRecording(FileChannel.open(file, StandardOpenOption.READ));
+    }
+
+    static long payloadBytes(byte type, int count) {
+        switch (type) {
+            case SPAWN:
+                return SPAWN_HEADER_BYTES + (long) count * (2 * Integer.BYTES + 2 * Double.BYTES);
+            case KEYFRAME:
+                return (long) count * (5 * Integer.BYTES + 4 * Double.BYTES + Long.BYTES);
+            case REMOVE:
+                return REMOVE_BYTES;
+            case COLLISIONS:
+                return COLLISIONS_BYTES;
+            default:
+                return 0;
+        }
+    }
+
+    private void index() throws IOException {
+        long offset = HEADER_BYTES;
+        boolean collisions = false;
+        while (offset + RECORD_HEADER_BYTES <= size) {
+            Record record = record(offset);
+            if (record.type != SPAWN && record.type != KEYFRAME && record.type != REMOVE && record.type != COLLISIONS) break;
+            if (record.nextOffset() > size) break;
+
+            if (record.type == KEYFRAME) {
+                keyframes.put(record.tick, offset);
+                if (collisions) {
+                    keyframesWithCollisions.add(offset);
+                }
+            } else if (record.type == COLLISIONS) {
+                collisions = readCollisions(record);
+            }
+            lastTick = Math.max(lastTick, record.tick);
+            offset = record.nextOffset();
+        }
+        if (offset + RECORD_HEADER_BYTES <= size) {
+            Record record = record(offset);
+            if (record.type == END) {
+                lastTick = Math.max(lastTick, record.tick);
+            }
+        }
+        endOffset = offset;
+    }
+
+    public long getFirstTick() {
+        return keyframes.firstKey();
+    }
+
+    public long getLastTick() {
+        return lastTick;
+    }
+
+    public long getEndOffset() {
+        return endOffset;
+    }
+
+    public Record keyframeAtOrBefore(long tick) throws IOException {
+        Map.Entry<Long, Long> entry = keyframes.floorEntry(tick);
+        if (entry == null) entry = keyframes.firstEntry();
+        return record(entry.getValue());
+    }
+
+    public boolean collisionsAt(Record keyframe) {
+        return keyframesWithCollisions.contains(keyframe.offset);
+    }
+
+    public Record record(long offset) throws IOException {
+        ByteBuffer buffer = map(offset, RECORD_HEADER_BYTES);
+        return new Record(buffer.get(), buffer.getLong(), buffer.getInt(), offset);
+    }
+
+    public ParticleBatch readBatch(Record record) throws IOException {
+        int n = record.count;
+        ParticleBatch batch = new ParticleBatch(n);
+        ByteBuffer buffer = map(record.payloadOffset(), payloadBytes(record.type, n));
+        batch.id = buffer.getInt();
+        batch.lifetimeTicks = buffer.getLong();
+        getInts(buffer, batch.x, n);
+        getInts(buffer, batch.y, n);
+        getDoubles(buffer, batch.velocityX, n);
+        getDoubles(buffer, batch.velocityY, n);
+        return batch;
+    }
+
+    public void readSnapshot(Record record, ParticleSnapshot snapshot) throws IOException {
+        int n = record.count;
+        snapshot.ensureCapacity(n);
+        ByteBuffer buffer = map(record.payloadOffset(), payloadBytes(record.type, n));
+        getInts(buffer, snapshot.x, n);
+        getInts(buffer, snapshot.y, n);
+        getInts(buffer, snapshot.previousX, n);
+        getInts(buffer, snapshot.previousY, n);
+        getDoubles(buffer, snapshot.accumulatedX, n);
+        getDoubles(buffer, snapshot.accumulatedY, n);
+        getDoubles(buffer, snapshot.velocityX, n);
+        getDoubles(buffer, snapshot.velocityY, n);
+        getLongs(buffer, snapshot.expiresAt, n);
+        getInts(buffer, snapshot.batchId, n);
+        snapshot.count = n;
+        snapshot.tick = record.tick;
+    }
+
+    public ParticleRemoval readRemoval(Record record) throws IOException {
+        ByteBuffer buffer = map(record.payloadOffset(), REMOVE_BYTES);
+        ParticleRemoval.Kind kind = ParticleRemoval.Kind.values()[buffer.get()];
+        return ParticleRemoval.of(kind, buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt());
+    }
+
+    public boolean readCollisions(Record record) throws IOException {
+        return map(record.payloadOffset(), COLLISIONS_BYTES).get() != 0;
+    }
+
+    private ByteBuffer map(long offset, long length) throws IOException {
+        if (length > Integer.MAX_VALUE) throw new IllegalArgumentException("Record is too large to map: " + length + " bytes.");
+        if (windowBase < 0 || offset < windowBase || offset + length > windowBase + window.capacity()) {
+            windowBase = offset;
+            window = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(size - offset, Math.max(MAP_CHUNK_BYTES, length)));
+        }
+        return window.duplicate().position((int) (offset - windowBase)).limit((int) (offset - windowBase + length));
+    }
+
+    private static void getInts(ByteBuffer buffer, int[] values, int n) {
+        buffer.asIntBuffer().get(values, 0, n);
+        buffer.position(buffer.position() + n * Integer.BYTES);
+    }
+
+    private static void getDoubles(ByteBuffer buffer, double[] values, int n) {
+        buffer.asDoubleBuffer().get(values, 0, n);
+        buffer.position(buffer.position() + n * Double.BYTES);
+    }
+
+    private static void getLongs(ByteBuffer buffer, long[] values, int n) {
+        buffer.asLongBuffer().get(values, 0, n);
+        buffer.position(buffer.position() + n * Long.BYTES);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,109 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+class SimulationReplay {
+    private static final int MAX_STEPS_PER_TICK = 64;
+
+    private final SimulationRecording recording;
+    private final SimulationEngine engine;
+    private final ParticleSnapshot snapshot = new ParticleSnapshot();
+    private final AtomicLong seekRequest = new AtomicLong(-1);
+    private volatile double speed = 1.0;
+    private double pendingSteps = 0;
+    private long nextOffset;
+
+    public SimulationReplay(SimulationRecording recording, SimulationEngine engine) {
+        if (recording.physicsHz != Constants.PHYSICS_HZ) {
+            throw new IllegalArgumentException("Recording was made at " + recording.physicsHz
+                    + " Hz physics; run the replay with -Dsimulator.physicsHz=" + recording.physicsHz + ".");
+        }
+        if (recording.width != engine.width || recording.height != engine.height) {
+            throw new IllegalArgumentException("Recording is " + recording.width + "x" + recording.height
+                    + " but the engine is " + engine.width + "x" + engine.height + ".");
+        }
+        this.recording = recording;
+        this.engine = engine;
+        engine.setReplaying(true);
+        seekTo(recording.getFirstTick());
+    }
+
+    public double getSpeed() {
+        return speed;
+    }
+
+    public void setSpeed(double speed) {
+        if (speed < 0 || speed > MAX_STEPS_PER_TICK) {
+            throw new IllegalArgumentException("Replay speed must be between 0 and " + MAX_STEPS_PER_TICK + ".");
+        }
+        this.speed = speed;
+    }
+
+    public void seek(long tick) {
+        if (tick < 0) throw new IllegalArgumentException("Tick must not be negative.");
+        seekRequest.set(tick);
+    }
+
+    public long getTick() {
+        return engine.getTick();
+    }
+
+    public long getLastTick() {
+        return recording.getLastTick();
+    }
+
+    public void tick() {
+        long target = seekRequest.getAndSet(-1);
+        if (target >= 0) {
+            seekTo(target);
+        }
+
+        pendingSteps = Math.min(pendingSteps + speed, MAX_STEPS_PER_TICK);
+        while (pendingSteps >= 1 && engine.getTick() < recording.getLastTick()) {
+            advance();
+            pendingSteps -= 1;
+        }
+        if (engine.getTick() >= recording.getLastTick()) {
+            pendingSteps = 0;
+        }
+    }
+
+    private void seekTo(long target) {
+        try {
+            SimulationRecording.Record keyframe = recording.keyframeAtOrBefore(target);
+            recording.readSnapshot(keyframe, snapshot);
+            engine.restore(snapshot);
+            engine.setCollisions(recording.collisionsAt(keyframe));
+            nextOffset = keyframe.nextOffset();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read recording", e);
+        }
+
+        long end = Math.min(target, recording.getLastTick());
+        while (engine.getTick() < end) {
+            advance();
+        }
+        pendingSteps = 0;
+    }
+
+    private void advance() {
+        long tick = engine.getTick();
+        try {
+            while (nextOffset < recording.getEndOffset()) {
+                SimulationRecording.Record record = recording.record(nextOffset);
+                if (record.tick > tick) break;
+                if (record.type == SimulationRecording.SPAWN && record.tick == tick) {
+                    engine.addParticles(recording.readBatch(record));
+                } else if (record.type == SimulationRecording.REMOVE && record.tick == tick) {
+                    engine.removeParticles(recording.readRemoval(record));
+                } else if (record.type == SimulationRecording.COLLISIONS && record.tick == tick) {
+                    engine.setCollisions(recording.readCollisions(record));
+                }
+                nextOffset = record.nextOffset();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read recording", e);
+        }
+        engine.step(Constants.PHYSICS_TIME_STEP);
+    }
+}
@@ -1,6 +1,10 @@
 import javax.swing.*;
 import javax.swing.border.TitledBorder;
 import java.awt.*;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Random;
 
 public class Simulator {
@@ -13,17 +17,42 @@ public class Simulator {
         JLabel fpsLabel = new JLabel("FPS: 0.00");
         JLabel particleLabel = new JLabel("Particles: 0");
         JLabel spritePositionLabel = new JLabel("Sprite Position: (Not in explorer mode)");
-        Canvas canvas = new Canvas(fpsLabel, particleLabel, spritePositionLabel);
+        JLabel qualityLabel = new JLabel("Quality: Full");
+        SimulationEngine engine = new SimulationEngine(1280, 720);
+        SimulationReplay replay = openReplay(engine);
+        startRecording(engine);
+        Canvas canvas = new Canvas(engine, fpsLabel, particleLabel, spritePositionLabel, qualityLabel);
+
+        MetricsPanel metricsPanel = new MetricsPanel(engine.getMetrics());
+        metricsPanel.setVisible(Boolean.getBoolean("simulator.metrics"));
+        JCheckBox metricsCheckBox = new JCheckBox("Show Metrics", metricsPanel.isVisible());
+        metricsCheckBox.addActionListener(e -> {
+            metricsPanel.setVisible(metricsCheckBox.isSelected());
+            frame.revalidate();
+        });
+        JCheckBox collisionsCheckBox = new JCheckBox("Collisions", engine.isCollisions());
+        collisionsCheckBox.addActionListener(e -> engine.setCollisions(collisionsCheckBox.isSelected()));
+        collisionsCheckBox.setEnabled(replay == null);
+        JCheckBox shardedCheckBox = new JCheckBox("Sharded", engine.isSharded());
+        shardedCheckBox.addActionListener(e -> engine.setSharded(shardedCheckBox.isSelected()));
 
         statusPanel.add(fpsLabel);
         statusPanel.add(particleLabel);
         statusPanel.add(spritePositionLabel);
-        frame.add(statusPanel, BorderLayout.NORTH);
+        statusPanel.add(qualityLabel);
+        statusPanel.add(metricsCheckBox);
+        statusPanel.add(collisionsCheckBox);
+        statusPanel.add(shardedCheckBox);
+
+        JPanel northPanel = new JPanel(new BorderLayout());
+        northPanel.add(statusPanel, BorderLayout.NORTH);
+        northPanel.add(metricsPanel, BorderLayout.CENTER);
+        frame.add(northPanel, BorderLayout.NORTH);
         frame.add(canvas, BorderLayout.CENTER);
 
         JPanel inputPanel = new JPanel();
         inputPanel.setLayout(new BoxLayout(inputPanel, BoxLayout.Y_AXIS));
-        setupInputPanel(inputPanel, canvas);
+        setupInputPanel(inputPanel, canvas, engine, replay);
 
         JScrollPane scrollPane = new JScrollPane(inputPanel);
 
@@ -34,7 +63,37 @@ public class Simulator {
         frame.pack();
         frame.setVisible(true);
 
-        canvas.startSimulation();
+        if (replay != null) {
+            engine.start(replay::tick);
+        } else {
+            engine.start();
+        }
+    }
+
+    private static SimulationReplay openReplay(SimulationEngine engine) {
+        String replayFile = System.getProperty("simulator.replay");
+        if (replayFile == null) return null;
+
+        try {
+            return new SimulationReplay(SimulationRecording.open(Paths.get(replayFile)), engine);
+        } catch (IOException | IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(null, "Failed to open replay: " + e.getMessage());
+            System.exit(1);
+            return null;
+        }
+    }
+
+    private static void startRecording(SimulationEngine engine) {
+        String recordFile = System.getProperty("simulator.record");
+        if (recordFile == null) return;
+
+        try {
+            SimulationRecorder recorder = new SimulationRecorder(Paths.get(recordFile), engine.width, engine.height, Constants.KEYFRAME_INTERVAL);
+            engine.setRecorder(recorder);
+            Runtime.getRuntime().addShutdownHook(new Thread(recorder::close, "recorder-shutdown"));
+        } catch (IOException | IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(null, "Failed to start recording: " + e.getMessage());
+        }
     }
 
     private static int getRandomIntInRange(int min, int max) {
@@ -47,7 +106,7 @@ public class Simulator {
         return min + (max - min) * random.nextDouble();
     }
 
-    private static void setupInputPanel(JPanel panel, Canvas canvas) {
+    private static void setupInputPanel(JPanel panel, Canvas canvas, SimulationEngine engine, SimulationReplay replay) {
         JPanel developerModePanel = new JPanel();
         developerModePanel.setLayout(new BoxLayout(developerModePanel, BoxLayout.Y_AXIS));
         panel.add(developerModePanel);
@@ -102,7 +161,29 @@ public class Simulator {
 
         explorerEntryPanel.add(explorerControlPanel);
 
-        addParticleControls(developerModePanel, canvas);
+        if (replay != null) {
+            addReplayControls(developerModePanel, replay);
+        } else {
+            Deque<Integer> spawnedBatches = new ArrayDeque<>();
+            addParticleControls(developerModePanel, engine, spawnedBatches);
+            addRemovalControls(developerModePanel, engine, spawnedBatches);
+        }
+
+        JTextField skipField = addLabeledTextField(explorerModePanel, "Skip Seconds:", "");
+        JPanel skipPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        JButton skipButton = new JButton("Skip Ahead");
+        skipButton.addActionListener(e -> {
+            try {
+                double seconds = Double.parseDouble(skipField.getText());
+                engine.skipTicks(Math.round(seconds * Constants.PHYSICS_HZ));
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(panel, "Invalid input. Please enter valid numbers.");
+            } catch (IllegalArgumentException | IllegalStateException ex) {
+                JOptionPane.showMessageDialog(panel, ex.getMessage());
+            }
+        });
+        skipPanel.add(skipButton);
+        explorerModePanel.add(skipPanel);
 
         JPanel returnToDevModePanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
         JButton returnToDevModeButton = new JButton("Return to Developer Mode");
@@ -115,7 +196,57 @@ public class Simulator {
         explorerModePanel.add(returnToDevModePanel);
     }
 
-    private static void addParticleControls(JPanel panel, Canvas canvas) {
+    private static void addReplayControls(JPanel panel, SimulationReplay replay) {
+        JPanel replayPanel = new JPanel();
+        replayPanel.setLayout(new BoxLayout(replayPanel, BoxLayout.Y_AXIS));
+        replayPanel.setBorder(BorderFactory.createTitledBorder(null, "Replay", TitledBorder.CENTER, TitledBorder.TOP));
+
+        JLabel tickLabel = new JLabel();
+        JPanel tickPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        tickPanel.add(tickLabel);
+        replayPanel.add(tickPanel);
+        new Timer(250, e -> tickLabel.setText("Tick: " + replay.getTick() + " / " + replay.getLastTick())).start();
+
+        JTextField speedField = addLabeledTextField(replayPanel, "Speed:", String.valueOf(replay.getSpeed()));
+        JPanel speedControlPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        JButton speedButton = new JButton("Set Speed");
+        speedButton.addActionListener(e -> {
+            try {
+                replay.setSpeed(Double.parseDouble(speedField.getText()));
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(panel, "Invalid input. Please enter valid numbers.");
+            } catch (IllegalArgumentException ex) {
+                JOptionPane.showMessageDialog(panel, ex.getMessage());
+            }
+        });
+        JButton pauseButton = new JButton("Pause");
+        pauseButton.addActionListener(e -> {
+            replay.setSpeed(0);
+            speedField.setText("0.0");
+        });
+        speedControlPanel.add(speedButton);
+        speedControlPanel.add(pauseButton);
+        replayPanel.add(speedControlPanel);
+
+        JTextField seekField = addLabeledTextField(replayPanel, "Tick:", "");
+        JPanel seekControlPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        JButton seekButton = new JButton("Seek");
+        seekButton.addActionListener(e -> {
+            try {
+                replay.seek(Long.parseLong(seekField.getText()));
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(panel, "Invalid input. Please enter valid numbers.");
+            } catch (IllegalArgumentException ex) {
+                JOptionPane.showMessageDialog(panel, ex.getMessage());
+            }
+        });
+        seekControlPanel.add(seekButton);
+        replayPanel.add(seekControlPanel);
+
+        panel.add(replayPanel);
+    }
+
+    private static void addParticleControls(JPanel panel, SimulationEngine engine, Deque<Integer> spawnedBatches) {
         JPanel betweenPointsPanel = new JPanel();
         betweenPointsPanel.setLayout(new BoxLayout(betweenPointsPanel, BoxLayout.Y_AXIS));
         betweenPointsPanel.setBorder(BorderFactory.createTitledBorder(null, "Add Particles (Between Points)", TitledBorder.CENTER, TitledBorder.TOP));
@@ -145,7 +276,7 @@ public class Simulator {
                     throw new IllegalArgumentException("X must be between 0 and 1280, Y must be between 0 and 720.");
                 }
 
-                canvas.addParticlesBetweenPoints(n, new Point(startX, startY), new Point(endX, endY), angle, velocity);
+                rememberSpawn(spawnedBatches, engine, engine.addParticlesBetweenPoints(n, new Point(startX, startY), new Point(endX, endY), angle, velocity));
             } catch (NumberFormatException ex) {
                 JOptionPane.showMessageDialog(panel, "Invalid input. Please enter valid numbers.");
             } catch (IllegalArgumentException ex) {
@@ -160,7 +291,7 @@ public class Simulator {
             double angle = getRandomDoubleInRange(0, 360);
             double velocity = getRandomDoubleInRange(50, 500);
 
-            canvas.addParticlesBetweenPoints(n, start, end, angle, velocity);
+            rememberSpawn(spawnedBatches, engine, engine.addParticlesBetweenPoints(n, start, end, angle, velocity));
         });
         betweenPointsButtonsPanel.add(addButton);
         betweenPointsButtonsPanel.add(addRandomParticlesButton);
@@ -194,7 +325,7 @@ public class Simulator {
                     throw new IllegalArgumentException("X must be between 0 and 1280, Y must be between 0 and 720.");
                 }
 
-                canvas.addParticlesVaryingAngles(n, new Point(x, y), startAngle, endAngle, velocity);
+                rememberSpawn(spawnedBatches, engine, engine.addParticlesVaryingAngles(n, new Point(x, y), startAngle, endAngle, velocity));
             } catch (NumberFormatException ex) {
                 JOptionPane.showMessageDialog(panel, "Invalid input. Please enter valid numbers.");
             } catch (IllegalArgumentException ex) {
@@ -209,7 +340,7 @@ public class Simulator {
             double endAngle = getRandomDoubleInRange(0, 360);
             double velocity = getRandomDoubleInRange(50, 500);
 
-            canvas.addParticlesVaryingAngles(n, start, startAngle, endAngle, velocity);
+            rememberSpawn(spawnedBatches, engine, engine.addParticlesVaryingAngles(n, start, startAngle, endAngle, velocity));
         });
         varyingAnglesButtonsPanel.add(addAngleButton);
         varyingAnglesButtonsPanel.add(addRandomParticlesVaryingAnglesButton);
@@ -243,7 +374,7 @@ public class Simulator {
                     throw new IllegalArgumentException("X must be between 0 and 1280, Y must be between 0 and 720.");
                 }
 
-                canvas.addParticlesVaryingVelocities(n, new Point(x, y), angle, startVelocity, endVelocity);
+                rememberSpawn(spawnedBatches, engine, engine.addParticlesVaryingVelocities(n, new Point(x, y), angle, startVelocity, endVelocity));
             } catch (NumberFormatException ex) {
                 JOptionPane.showMessageDialog(panel, "Invalid input. Please enter valid numbers.");
             } catch (IllegalArgumentException ex) {
@@ -258,7 +389,7 @@ public class Simulator {
             double startVelocity = getRandomDoubleInRange(50, 275);
             double endVelocity = getRandomDoubleInRange(275, 500);
 
-            canvas.addParticlesVaryingVelocities(n, start, angle, startVelocity, endVelocity);
+            rememberSpawn(spawnedBatches, engine, engine.addParticlesVaryingVelocities(n, start, angle, startVelocity, endVelocity));
         });
         varyingVelocitiesButtonsPanel.add(addVelocityButton);
         varyingVelocitiesButtonsPanel.add(addRandomParticlesVaryingVelocitiesButton);
@@ -266,6 +397,74 @@ public class Simulator {
         panel.add(varyingVelocitiesPanel);
     }
 
+    private static void addRemovalControls(JPanel panel, SimulationEngine engine, Deque<Integer> spawnedBatches) {
+        JPanel lifetimePanel = new JPanel();
+        lifetimePanel.setLayout(new BoxLayout(lifetimePanel, BoxLayout.Y_AXIS));
+        lifetimePanel.setBorder(BorderFactory.createTitledBorder(null, "Particle Lifetime", TitledBorder.CENTER, TitledBorder.TOP));
+        JTextField lifetimeField = addLabeledTextField(lifetimePanel, "Seconds (0 = forever):", String.valueOf(engine.getParticleLifetime()));
+        JPanel lifetimeButtonsPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 10));
+        JButton lifetimeButton = new JButton("Set Lifetime");
+        lifetimeButton.addActionListener(e -> {
+            try {
+                engine.setParticleLifetime(Double.parseDouble(lifetimeField.getText()));
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(panel, "Invalid input. Please enter valid numbers.");
+            } catch (IllegalArgumentException ex) {
+                JOptionPane.showMessageDialog(panel, ex.getMessage());
+            }
+        });
+        lifetimeButtonsPanel.add(lifetimeButton);
+        lifetimePanel.add(lifetimeButtonsPanel);
+        panel.add(lifetimePanel);
+
+        JPanel removalPanel = new JPanel();
+        removalPanel.setLayout(new BoxLayout(removalPanel, BoxLayout.Y_AXIS));
+        removalPanel.setBorder(BorderFactory.createTitledBorder(null, "Remove Particles", TitledBorder.CENTER, TitledBorder.TOP));
+        JTextField startXField = addLabeledTextField(removalPanel, "Start X:", "");
+        JTextField startYField = addLabeledTextField(removalPanel, "Start Y:", "");
+        JTextField endXField = addLabeledTextField(removalPanel, "End X:", "");
+        JTextField endYField = addLabeledTextField(removalPanel, "End Y:", "");
+        JPanel removalButtonsPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 10));
+        JButton removeRegionButton = new JButton("Remove Region");
+        removeRegionButton.addActionListener(e -> {
+            try {
+                int startX = Integer.parseInt(startXField.getText());
+                int startY = Integer.parseInt(startYField.getText());
+                int endX = Integer.parseInt(endXField.getText());
+                int endY = Integer.parseInt(endYField.getText());
+
+                engine.removeParticles(ParticleRemoval.region(startX, startY, endX, endY));
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(panel, "Invalid input. Please enter valid numbers.");
+            }
+        });
+        JButton undoSpawnButton = new JButton("Remove Last Spawn");
+        undoSpawnButton.addActionListener(e -> {
+            spawnedBatches.removeIf(id -> !engine.isBatchLive(id));
+            Integer batchId = spawnedBatches.poll();
+            if (batchId == null) {
+                JOptionPane.showMessageDialog(panel, "No spawned particles to remove.");
+                return;
+            }
+            engine.removeParticles(ParticleRemoval.batch(batchId));
+        });
+        JButton clearButton = new JButton("Clear All");
+        clearButton.addActionListener(e -> {
+            spawnedBatches.clear();
+            engine.removeParticles(ParticleRemoval.all());
+        });
+        removalButtonsPanel.add(removeRegionButton);
+        removalButtonsPanel.add(undoSpawnButton);
+        removalButtonsPanel.add(clearButton);
+        removalPanel.add(removalButtonsPanel);
+        panel.add(removalPanel);
+    }
+
+    private static void rememberSpawn(Deque<Integer> spawnedBatches, SimulationEngine engine, int batchId) {
+        spawnedBatches.removeIf(id -> !engine.isBatchLive(id));
+        spawnedBatches.push(batchId);
+    }
+
     private static JTextField addLabeledTextField(JPanel panel, String labelText, String textFieldText) {
         JPanel fieldPanel = new JPanel();
         fieldPanel.setLayout(new FlowLayout(FlowLayout.LEFT));
@@ -0,0 +1,70 @@
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+class SpatialGrid {
+    private final int cellSize;
+    private final int columns;
+    private final int rows;
+    private final int[] cellStart;
+    private final int[] cursor;
+    private int[] cellOf = new int[0];
+    private int[] indices = new int[0];
+
+    public SpatialGrid(int worldWidth, int worldHeight, int cellSize) {
+        this.cellSize = cellSize;
+        this.columns = (worldWidth + cellSize - 1) / cellSize;
+        this.rows = (worldHeight + cellSize - 1) / cellSize;
+        this.cellStart = new int[columns * rows + 1];
+        this.cursor = new int[columns * rows];
+    }
+
+    public void build(int[] xs, int[] ys, int count) {
+        if (indices.length < count) {
+            indices = new int[xs.length];
+            cellOf = new int[xs.length];
+        }
+
+        Arrays.fill(cellStart, 0);
+        for (int i = 0; i < count; i++) {
+            int cell = cellIndex(column(xs[i]), row(ys[i]));
+            cellOf[i] = cell;
+            cellStart[cell + 1]++;
+        }
+        for (int cell = 0; cell < columns * rows; cell++) {
+            cellStart[cell + 1] += cellStart[cell];
+        }
+
+        System.arraycopy(cellStart, 0, cursor, 0, cursor.length);
+        for (int i = 0; i < count; i++) {
+            indices[cursor[cellOf[i]]++] = i;
+        }
+    }
+
+    public void forEachInRect(int minX, int minY, int maxX, int maxY, IntConsumer action) {
+        int firstColumn = column(minX);
+        int lastColumn = column(maxX);
+        int firstRow = row(minY);
+        int lastRow = row(maxY);
+
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                int cell = cellIndex(column, row);
+                for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+                    action.accept(indices[k]);
+                }
+            }
+        }
+    }
+
+    private int column(int x) {
+        return Math.max(0, Math.min(columns - 1, x / cellSize));
+    }
+
+    private int row(int y) {
+        return Math.max(0, Math.min(rows - 1, y / cellSize));
+    }
+
+    private int cellIndex(int column, int row) {
+        return row * columns + column;
+    }
+}
@@ -0,0 +1,82 @@
+import java.awt.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+class Sprite {
+    static final int UP = 1;
+    static final int DOWN = 1 << 1;
+    static final int LEFT = 1 << 2;
+    static final int RIGHT = 1 << 3;
+
+    private final int maxX;
+    private final int maxY;
+    private final double speed;
+    private final AtomicInteger heldDirections = new AtomicInteger();
+    private final AtomicReference<Point> requestedPosition = new AtomicReference<>();
+    private volatile boolean active = false;
+    private volatile Point position = null;
+    private double x;
+    private double y;
+
+    public Sprite(int maxX, int maxY, double speed) {
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.speed = speed;
+    }
+
+    public void press(int direction) {
+        heldDirections.getAndAccumulate(direction, (held, d) -> held | d);
+    }
+
+    public void release(int direction) {
+        heldDirections.getAndAccumulate(direction, (held, d) -> held & ~d);
+    }
+
+    public void releaseAll() {
+        heldDirections.set(0);
+    }
+
+    public void moveTo(int x, int y) {
+        Point point = new Point(x, y);
+        position = point;
+        requestedPosition.set(point);
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public Point getPosition() {
+        return position;
+    }
+
+    boolean step(double deltaTime) {
+        Point requested = requestedPosition.getAndSet(null);
+        if (requested != null) {
+            x = requested.x;
+            y = requested.y;
+        }
+        if (!active || position == null) return requested != null;
+
+        int held = heldDirections.get();
+        if (held == 0) return requested != null;
+
+        double distance = speed * deltaTime;
+        if ((held & UP) != 0) y = Math.min(maxY, y + distance);
+        if ((held & DOWN) != 0) y = Math.max(0, y - distance);
+        if ((held & LEFT) != 0) x = Math.max(0, x - distance);
+        if ((held & RIGHT) != 0) x = Math.min(maxX, x + distance);
+
+        int newX = (int) Math.round(x);
+        int newY = (int) Math.round(y);
+        Point current = position;
+        if (newX == current.x && newY == current.y) return requested != null;
+
+        position = new Point(newX, newY);
+        return true;
+    }
+}
@@ -0,0 +1,94 @@
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+class VectorPhysicsKernel implements PhysicsKernel {
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    private static final double ROUNDING_MAGIC = 0x1.8p52;
+    private static final int PARTICLE_DIAMETER = 5;
+    private static final int WALL_BUFFER = 1;
+
+    // Positions are widened into these per chunk; plain loops let the JIT vectorize the int/double casts,
+    // which converting between vector shapes did not.
+    private static final int CHUNK = 1024;
+    private static final ThreadLocal<double[][]> SCRATCH = ThreadLocal.withInitial(() -> new double[2][CHUNK]);
+
+    @Override
+    public String name() {
+        return "vector (" + DOUBLES.length() + " lanes)";
+    }
+
+    @Override
+    public void step(ParticleStore store, int from, int to, double deltaTime, int canvasWidth, int canvasHeight) {
+        System.arraycopy(store.x, from, store.previousX, from, to - from);
+        System.arraycopy(store.y, from, store.previousY, from, to - from);
+
+        double maxX = canvasWidth - PARTICLE_DIAMETER;
+        double maxY = canvasHeight - PARTICLE_DIAMETER;
+        double clampX = canvasWidth - PARTICLE_DIAMETER - WALL_BUFFER;
+        double clampY = canvasHeight - PARTICLE_DIAMETER - WALL_BUFFER;
+
+        double[][] scratch = SCRATCH.get();
+        double[] xs = scratch[0];
+        double[] ys = scratch[1];
+        for (int start = from; start < to; start += CHUNK) {
+            int count = Math.min(CHUNK, to - start);
+            for (int j = 0; j < count; j++) {
+                xs[j] = store.x[start + j];
+                ys[j] = store.y[start + j];
+            }
+            int k = 0;
+            int bound = DOUBLES.loopBound(count);
+            for (; k < bound; k += DOUBLES.length()) {
+                int i = start + k;
+                DoubleVector velocityX = DoubleVector.fromArray(DOUBLES, store.velocityX, i);
+                DoubleVector velocityY = DoubleVector.fromArray(DOUBLES, store.velocityY, i);
+                DoubleVector accX = DoubleVector.fromArray(DOUBLES, store.accumulatedX, i).add(velocityX.mul(deltaTime));
+                DoubleVector accY = DoubleVector.fromArray(DOUBLES, store.accumulatedY, i).add(velocityY.mul(deltaTime));
+                DoubleVector x = DoubleVector.fromArray(DOUBLES, xs, k);
+                DoubleVector y = DoubleVector.fromArray(DOUBLES, ys, k);
+
+                VectorMask<Double> moved = accX.abs().compare(VectorOperators.GE, 1.0)
+                        .or(accY.abs().compare(VectorOperators.GE, 1.0));
+                DoubleVector stepX = round(accX);
+                DoubleVector stepY = round(accY);
+                x = x.add(stepX, moved);
+                y = y.add(stepY, moved);
+                accX = accX.sub(stepX, moved);
+                accY = accY.sub(stepY, moved);
+
+                VectorMask<Double> leftWall = x.compare(VectorOperators.LE, 0.0);
+                VectorMask<Double> rightWall = x.compare(VectorOperators.GE, maxX).andNot(leftWall);
+                velocityX = velocityX.lanewise(VectorOperators.NEG, leftWall.or(rightWall));
+                x = x.blend(WALL_BUFFER, leftWall).blend(clampX, rightWall);
+
+                VectorMask<Double> topWall = y.compare(VectorOperators.GE, maxY);
+                VectorMask<Double> bottomWall = y.compare(VectorOperators.LE, 0.0).andNot(topWall);
+                velocityY = velocityY.lanewise(VectorOperators.NEG, topWall.or(bottomWall));
+                y = y.blend(clampY, topWall).blend(WALL_BUFFER, bottomWall);
+
+                x.intoArray(xs, k);
+                y.intoArray(ys, k);
+                accX.intoArray(store.accumulatedX, i);
+                accY.intoArray(store.accumulatedY, i);
+                velocityX.intoArray(store.velocityX, i);
+                velocityY.intoArray(store.velocityY, i);
+            }
+            for (int j = 0; j < bound; j++) {
+                store.x[start + j] = (int) xs[j];
+                store.y[start + j] = (int) ys[j];
+            }
+            for (int i = start + bound; i < start + count; i++) {
+                store.updatePosition(i, deltaTime);
+                store.handleWallCollision(i, canvasWidth, canvasHeight);
+            }
+        }
+    }
+
+    private static DoubleVector round(DoubleVector value) {
+        DoubleVector nearest = value.add(ROUNDING_MAGIC).sub(ROUNDING_MAGIC);
+        DoubleVector fraction = value.sub(nearest);
+        return nearest.add(1.0, fraction.compare(VectorOperators.GE, 0.5));
+    }
+}
@@ -0,0 +1,128 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class ClosedFormParticlesTest {
+    private static final int WIDTH = 1280;
+    private static final int HEIGHT = 720;
+    private static final int PARTICLES = 3000;
+    private static final int MARGIN = 16;
+
+    private final PhysicsWorkers workers = new PhysicsWorkers(2, 1000);
+    private final PhysicsKernel kernel = new ScalarPhysicsKernel();
+
+    @AfterEach
+    void shutdown() {
+        workers.shutdown();
+    }
+
+    @Test
+    void positionsMatchSteppedStoreThroughWallBounces() {
+        ParticleStore stepped = randomStore(new Random(20));
+        ClosedFormParticles closedForm = closedForm();
+        closedForm.load(stepped, 0, workers);
+
+        for (long tick = 1; tick <= 6000; tick++) {
+            kernel.step(stepped, 0, stepped.size(), Constants.PHYSICS_TIME_STEP, WIDTH, HEIGHT);
+            if (tick % 7 != 0 && tick < 5990) continue;
+
+            for (int i = 0; i < stepped.size(); i++) {
+                assertEquals(stepped.x[i], closedForm.positionX(i, tick), "x of particle " + i + " at tick " + tick);
+                assertEquals(stepped.y[i], closedForm.positionY(i, tick), "y of particle " + i + " at tick " + tick);
+            }
+        }
+    }
+
+    @Test
+    void storeAfterSkippingAheadContinuesLikeTheSteppedStore() {
+        ParticleStore stepped = randomStore(new Random(21));
+        ClosedFormParticles closedForm = closedForm();
+        closedForm.load(stepped, 0, workers);
+        for (int tick = 0; tick < 3600; tick++) {
+            kernel.step(stepped, 0, stepped.size(), Constants.PHYSICS_TIME_STEP, WIDTH, HEIGHT);
+        }
+
+        ParticleStore restored = randomStore(new Random(21));
+        closedForm.store(restored, 3600, workers);
+        for (int tick = 0; tick < 600; tick++) {
+            kernel.step(stepped, 0, stepped.size(), Constants.PHYSICS_TIME_STEP, WIDTH, HEIGHT);
+            kernel.step(restored, 0, restored.size(), Constants.PHYSICS_TIME_STEP, WIDTH, HEIGHT);
+            for (int i = 0; i < stepped.size(); i++) {
+                assertEquals(stepped.x[i], restored.x[i], "x of particle " + i + " at tick " + tick);
+                assertEquals(stepped.y[i], restored.y[i], "y of particle " + i + " at tick " + tick);
+                assertEquals(stepped.previousX[i], restored.previousX[i], "previous x of particle " + i + " at tick " + tick);
+                assertEquals(stepped.previousY[i], restored.previousY[i], "previous y of particle " + i + " at tick " + tick);
+            }
+        }
+    }
+
+    @Test
+    void viewportCaptureFindsEverySteppedParticleInView() {
+        ParticleStore stepped = randomStore(new Random(22));
+        ClosedFormParticles closedForm = closedForm();
+        closedForm.load(stepped, 0, workers);
+        ParticleFrame frame = new ParticleFrame(WIDTH, HEIGHT);
+        int viewX = 600;
+        int viewY = 300;
+
+        for (long tick = 1; tick <= 1200; tick++) {
+            kernel.step(stepped, 0, stepped.size(), Constants.PHYSICS_TIME_STEP, WIDTH, HEIGHT);
+            if (tick % 2 == 0) viewX++;
+            if (tick % 3 == 0) viewY--;
+            int maxX = viewX + ExplorerProtocol.GRID_WIDTH - 1;
+            int maxY = viewY + ExplorerProtocol.GRID_HEIGHT - 1;
+            closedForm.captureViewport(frame, tick, viewX, viewY, maxX, maxY);
+
+            List<String> expected = new ArrayList<>();
+            for (int i = 0; i < stepped.size(); i++) {
+                if (stepped.x[i] >= viewX - MARGIN && stepped.x[i] <= maxX + MARGIN
+                        && stepped.y[i] >= viewY - MARGIN && stepped.y[i] <= maxY + MARGIN) {
+                    expected.add(stepped.x[i] + "," + stepped.y[i] + "," + stepped.previousX[i] + "," + stepped.previousY[i]);
+                }
+            }
+            List<String> actual = new ArrayList<>();
+            for (int k = 0; k < frame.count; k++) {
+                actual.add(frame.x[k] + "," + frame.y[k] + "," + frame.previousX[k] + "," + frame.previousY[k]);
+            }
+            Collections.sort(expected);
+            Collections.sort(actual);
+            assertEquals(expected, actual, "viewport contents at tick " + tick);
+        }
+    }
+
+    private static ClosedFormParticles closedForm() {
+        return new ClosedFormParticles(WIDTH, HEIGHT, Constants.PHYSICS_TIME_STEP, Constants.SPRITE_SPEED);
+    }
+
+    // Mixes stationary, slow (stepped exactly) and fast (solved) particles, some starting on or past a wall.
+    private static ParticleStore randomStore(Random random) {
+        ParticleStore store = new ParticleStore(PARTICLES);
+        for (int i = 0; i < PARTICLES; i++) {
+            int x = random.nextInt(WIDTH + 20) - 10;
+            int y = random.nextInt(HEIGHT + 20) - 10;
+            double angle = random.nextDouble() * 360;
+            double velocity;
+            switch (random.nextInt(4)) {
+                case 0:
+                    velocity = random.nextInt(4) == 0 ? 0 : random.nextDouble() * 90;
+                    break;
+                case 1:
+                    velocity = 90 + random.nextDouble() * 60;
+                    break;
+                default:
+                    velocity = random.nextDouble() * 2000;
+                    break;
+            }
+            store.add(x, y, angle, velocity);
+        }
+        for (int tick = 0; tick < 3; tick++) {
+            store.update(0, store.size(), Constants.PHYSICS_TIME_STEP, WIDTH, HEIGHT);
+        }
+        return store;
+    }
+}
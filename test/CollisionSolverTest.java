@@ -0,0 +1,98 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Random;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class CollisionSolverTest {
+    private static final int WIDTH = 1280;
+    private static final int HEIGHT = 720;
+
+    private final PhysicsWorkers workers = new PhysicsWorkers(2, 1000);
+    private final FrameMetrics metrics = new FrameMetrics(null);
+    private final CollisionSolver solver = new CollisionSolver(WIDTH, HEIGHT);
+
+    @AfterEach
+    void shutdown() {
+        workers.shutdown();
+        metrics.shutdown();
+    }
+
+    @Test
+    void headOnPairExchangesVelocities() {
+        ParticleStore store = new ParticleStore();
+        store.add(100, 100, 0, 120);
+        store.add(104, 100, 180, 60);
+
+        assertEquals(1, solver.solve(store, workers, metrics));
+
+        assertEquals(-60, store.velocityX[0], 1e-9);
+        assertEquals(120, store.velocityX[1], 1e-9);
+        assertEquals(0, store.velocityY[0], 1e-9);
+        assertEquals(0, store.velocityY[1], 1e-9);
+    }
+
+    @Test
+    void separatingPairIsLeftAlone() {
+        ParticleStore store = new ParticleStore();
+        store.add(100, 100, 180, 120);
+        store.add(104, 100, 0, 60);
+
+        assertEquals(0, solver.solve(store, workers, metrics));
+
+        assertEquals(-120, store.velocityX[0], 1e-9);
+        assertEquals(60, store.velocityX[1], 1e-9);
+    }
+
+    @Test
+    void conservesMomentumAndEnergy() {
+        Random random = new Random(19);
+        ParticleStore store = new ParticleStore();
+        for (int i = 0; i < 20_000; i++) {
+            store.add(400 + random.nextInt(200), 200 + random.nextInt(150), random.nextDouble() * 360, random.nextDouble() * 500);
+        }
+        double[] before = totals(store);
+
+        long pairs = 0;
+        for (int tick = 0; tick < 30; tick++) {
+            pairs += solver.solve(store, workers, metrics);
+        }
+
+        double[] after = totals(store);
+        assertEquals(before[0], after[0], 1e-6);
+        assertEquals(before[1], after[1], 1e-6);
+        assertEquals(before[2], after[2], 1e-9 * before[2]);
+        assertTrue(pairs > 1000, "only " + pairs + " pairs collided");
+    }
+
+    @Test
+    void denseSingleCellSpawnStaysCheap() {
+        ParticleStore store = new ParticleStore();
+        for (int i = 0; i < 50_000; i++) {
+            store.add(640, 360, i * 360.0 / 50_000, 100);
+        }
+        for (int i = 0; i < 2000; i++) {
+            store.add(640 + i % 3, 360 + i % 2, i * 7.0, 100);
+        }
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            for (int tick = 0; tick < 10; tick++) {
+                solver.solve(store, workers, metrics);
+            }
+        });
+    }
+
+    // Sums of momentum along x and y, and of kinetic energy, for unit masses.
+    private static double[] totals(ParticleStore store) {
+        double[] totals = new double[3];
+        for (int i = 0; i < store.size(); i++) {
+            totals[0] += store.velocityX[i];
+            totals[1] += store.velocityY[i];
+            totals[2] += store.velocityX[i] * store.velocityX[i] + store.velocityY[i] * store.velocityY[i];
+        }
+        return totals;
+    }
+}
@@ -0,0 +1,61 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class ParticleStoreTest {
+    private static final int WIDTH = 1280;
+    private static final int HEIGHT = 720;
+
+    @Test
+    void updateMatchesParticleUpdatePosition() {
+        Random random = new Random(1);
+        Particle[] reference = new Particle[2000];
+        ParticleStore store = new ParticleStore();
+        for (int i = 0; i < reference.length; i++) {
+            int x = random.nextInt(WIDTH);
+            int y = random.nextInt(HEIGHT);
+            double angle = random.nextDouble() * 360;
+            double velocity = random.nextDouble() * 2000;
+            reference[i] = new Particle(x, y, angle, velocity);
+            store.add(x, y, angle, velocity);
+        }
+
+        for (int tick = 0; tick < 600; tick++) {
+            store.update(0, store.size(), Constants.PHYSICS_TIME_STEP, WIDTH, HEIGHT);
+            for (int i = 0; i < reference.length; i++) {
+                reference[i].updatePosition(Constants.PHYSICS_TIME_STEP);
+                reference[i].handleWallCollision(WIDTH, HEIGHT);
+                assertEquals(reference[i].position.x, store.x[i], "x of particle " + i + " at tick " + tick);
+                assertEquals(reference[i].position.y, store.y[i], "y of particle " + i + " at tick " + tick);
+            }
+        }
+    }
+
+    @Test
+    void removeAtMovesTheLastParticleWithItsBatchAndExpiry() {
+        ParticleStore store = new ParticleStore();
+        store.add(10, 10, 0, 0);
+        ParticleBatch expiring = new ParticleBatch(2);
+        expiring.set(0, 20, 20, 0, 0);
+        expiring.set(1, 30, 30, 90, 60);
+        expiring.id = 7;
+        expiring.lifetimeTicks = 50;
+        store.addAll(expiring, 100);
+
+        store.removeAt(0);
+
+        assertEquals(2, store.size());
+        assertEquals(30, store.x[0]);
+        assertEquals(30, store.y[0]);
+        assertEquals(60, store.velocityY[0], 1e-9);
+        assertEquals(7, store.batchId[0]);
+        assertEquals(150, store.expiresAt[0]);
+        assertEquals(20, store.x[1]);
+
+        store.removeAt(1);
+
+        assertEquals(1, store.size());
+        assertEquals(30, store.x[0]);
+    }
+}
@@ -0,0 +1,51 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ScenarioTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void eventLifetimesDoNotChangeTheEngineLifetime() throws IOException {
+        Path file = directory.resolve("lifetimes.scn");
+        Files.write(file, String.join(System.lineSeparator(),
+                "at 0 random:100 ttl 0.5",
+                "at 0 random:50 ttl 1",
+                "at 0 random:20").getBytes());
+        Scenario scenario = Scenario.load(file);
+        SimulationEngine engine = new SimulationEngine(1280, 720, 1);
+        engine.setParticleLifetime(2);
+
+        assertEquals(3, scenario.fireDue(engine, 0));
+        engine.awaitPendingSpawns();
+        assertEquals(2.0, engine.getParticleLifetime());
+        assertEquals(170, engine.getParticleCount());
+
+        stepTo(engine, Constants.PHYSICS_HZ / 2 + 1);
+        assertEquals(70, engine.getParticleCount());
+        stepTo(engine, Constants.PHYSICS_HZ + 1);
+        assertEquals(20, engine.getParticleCount());
+        engine.shutdown();
+    }
+
+    @Test
+    void rejectsNonPositiveParticleCounts() throws IOException {
+        Path file = directory.resolve("empty.scn");
+        Files.write(file, String.join(System.lineSeparator(), "at 0 random:10", "every 1 random:0").getBytes());
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> Scenario.load(file));
+        assertEquals("Line 2: Particle count must be at least 1 in particle spec: random:0", e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> HeadlessSimulator.parseSpec("random:-3"));
+    }
+
+    private static void stepTo(SimulationEngine engine, long tick) {
+        while (engine.getTick() < tick) {
+            engine.step(Constants.PHYSICS_TIME_STEP);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class SimulationEngineTest {
+    private static final int WIDTH = 640;
+    private static final int HEIGHT = 480;
+
+    @Test
+    void removalsAndExpiryKeepExactlyTheSurvivors() {
+        for (boolean sharded : new boolean[]{false, true}) {
+            SimulationEngine engine = new SimulationEngine(WIDTH, HEIGHT, 4, 100);
+            engine.setSharded(sharded);
+            Random random = new Random(22);
+            ParticleBatch kept = stationaryBatch(random, 3000);
+            engine.addParticles(kept);
+            engine.setParticleLifetime(10.0 / Constants.PHYSICS_HZ);
+            ParticleBatch expiring = stationaryBatch(random, 2000);
+            engine.addParticles(expiring);
+            engine.setParticleLifetime(0);
+            ParticleBatch removed = stationaryBatch(random, 1000);
+            int removedId = engine.addParticles(removed);
+            engine.step(Constants.PHYSICS_TIME_STEP);
+
+            ParticleRemoval region = ParticleRemoval.region(100, 50, 300, 250);
+            engine.removeParticles(region);
+            engine.removeParticles(ParticleRemoval.batch(removedId));
+            engine.step(Constants.PHYSICS_TIME_STEP);
+            assertEquals(survivors(region, kept, expiring), positions(engine.latestFrame()), "sharded=" + sharded);
+
+            while (engine.getTick() <= 11) {
+                engine.step(Constants.PHYSICS_TIME_STEP);
+            }
+            assertEquals(survivors(region, kept), positions(engine.latestFrame()), "sharded=" + sharded + " after expiry");
+
+            engine.removeParticles(ParticleRemoval.all());
+            engine.step(Constants.PHYSICS_TIME_STEP);
+            assertEquals(0, engine.latestFrame().count, "sharded=" + sharded + " after removing all");
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    void batchesStayLiveUntilTheirLastParticleIsGone() {
+        for (boolean sharded : new boolean[]{false, true}) {
+            SimulationEngine engine = new SimulationEngine(WIDTH, HEIGHT, 4, 100);
+            engine.setSharded(sharded);
+            Random random = new Random(24);
+            int keptId = engine.addParticles(stationaryBatch(random, 3000));
+            engine.setParticleLifetime(5.0 / Constants.PHYSICS_HZ);
+            int expiringId = engine.addParticles(stationaryBatch(random, 2000));
+            engine.setParticleLifetime(0);
+            ParticleBatch corner = new ParticleBatch(500);
+            for (int i = 0; i < corner.size; i++) {
+                corner.set(i, 10 + random.nextInt(50), 10 + random.nextInt(50), 0, 0);
+            }
+            int cornerId = engine.addParticles(corner);
+            int spawnedId = engine.addParticlesBetweenPoints(100, new Point(100, 100), new Point(200, 200), 0, 0);
+            assertTrue(engine.isBatchLive(spawnedId), "sharded=" + sharded + " before the spawn merges");
+            engine.awaitPendingSpawns();
+            engine.step(Constants.PHYSICS_TIME_STEP);
+
+            engine.removeParticles(ParticleRemoval.region(0, 0, 70, 70));
+            engine.removeParticles(ParticleRemoval.batch(spawnedId));
+            while (engine.getTick() <= 6) {
+                engine.step(Constants.PHYSICS_TIME_STEP);
+            }
+            assertTrue(engine.isBatchLive(keptId), "sharded=" + sharded);
+            assertFalse(engine.isBatchLive(expiringId), "sharded=" + sharded + " after expiry");
+            assertFalse(engine.isBatchLive(cornerId), "sharded=" + sharded + " after region removal");
+            assertFalse(engine.isBatchLive(spawnedId), "sharded=" + sharded + " after batch removal");
+
+            engine.removeParticles(ParticleRemoval.all());
+            engine.step(Constants.PHYSICS_TIME_STEP);
+            assertFalse(engine.isBatchLive(keptId), "sharded=" + sharded + " after removing all");
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    void lazyOffscreenStepsMatchFullStepsAcrossRemovals() {
+        List<List<String>> results = new ArrayList<>();
+        for (boolean lazy : new boolean[]{false, true}) {
+            SimulationEngine engine = new SimulationEngine(WIDTH, HEIGHT, 4, 100);
+            engine.setExplorerMode(true);
+            engine.setLazyOffscreen(lazy);
+            Random random = new Random(23);
+            engine.addParticles(movingBatch(random, 3000));
+            int removedId = engine.addParticles(movingBatch(random, 1000));
+            engine.step(Constants.PHYSICS_TIME_STEP);
+            engine.step(Constants.PHYSICS_TIME_STEP);
+            engine.removeParticles(ParticleRemoval.batch(removedId));
+            while (engine.getTick() < 4 * 3) {
+                engine.step(Constants.PHYSICS_TIME_STEP);
+            }
+            results.add(positions(engine.latestFrame()));
+            engine.shutdown();
+        }
+        assertEquals(3000, results.get(0).size());
+        assertEquals(results.get(0), results.get(1));
+    }
+
+    @Test
+    void shutdownStopsTheMetricsReporter() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            new SimulationEngine(WIDTH, HEIGHT, 2).shutdown();
+        }
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (metricsThreads() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, metricsThreads());
+    }
+
+    private static long metricsThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.isAlive() && thread.getName().equals("frame-metrics"))
+                .count();
+    }
+
+    private static ParticleBatch stationaryBatch(Random random, int n) {
+        ParticleBatch batch = new ParticleBatch(n);
+        for (int i = 0; i < n; i++) {
+            batch.set(i, 10 + random.nextInt(WIDTH - 20), 10 + random.nextInt(HEIGHT - 20), 0, 0);
+        }
+        return batch;
+    }
+
+    private static ParticleBatch movingBatch(Random random, int n) {
+        ParticleBatch batch = new ParticleBatch(n);
+        for (int i = 0; i < n; i++) {
+            batch.set(i, 40 + random.nextInt(WIDTH - 80), 40 + random.nextInt(HEIGHT - 80),
+                    90 * random.nextInt(4), (1 + random.nextInt(2)) * Constants.PHYSICS_HZ);
+        }
+        return batch;
+    }
+
+    private static List<String> survivors(ParticleRemoval region, ParticleBatch... batches) {
+        List<String> positions = new ArrayList<>();
+        for (ParticleBatch batch : batches) {
+            for (int i = 0; i < batch.size; i++) {
+                if (!region.matches(0, batch.x[i], batch.y[i])) {
+                    positions.add(batch.x[i] + "," + batch.y[i]);
+                }
+            }
+        }
+        Collections.sort(positions);
+        return positions;
+    }
+
+    private static List<String> positions(ParticleFrame frame) {
+        List<String> positions = new ArrayList<>();
+        for (int i = 0; i < frame.count; i++) {
+            positions.add(frame.x[i] + "," + frame.y[i]);
+        }
+        Collections.sort(positions);
+        return positions;
+    }
+}
@@ -0,0 +1,91 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SimulationRecordingTest {
+    private static final int WIDTH = 320;
+    private static final int HEIGHT = 240;
+    private static final int KEYFRAME_INTERVAL = 50;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replayFollowsCollisionToggles() throws IOException {
+        Path file = directory.resolve("collisions.rec");
+        SimulationEngine recorded = new SimulationEngine(WIDTH, HEIGHT, 1);
+        SimulationRecorder recorder = new SimulationRecorder(file, WIDTH, HEIGHT, KEYFRAME_INTERVAL);
+        recorded.setRecorder(recorder);
+        recorded.setCollisions(true);
+        recorded.addParticles(randomBatch());
+        int[][] expected = new int[301][];
+        for (int tick = 1; tick <= 300; tick++) {
+            if (tick == 80 || tick == 190) recorded.setCollisions(false);
+            if (tick == 140) recorded.setCollisions(true);
+            recorded.step(Constants.PHYSICS_TIME_STEP);
+            expected[(int) recorded.getTick()] = positions(recorded.latestFrame());
+        }
+        recorder.close();
+        recorded.shutdown();
+
+        SimulationEngine replayed = new SimulationEngine(WIDTH, HEIGHT, 1);
+        replayed.setExplorerMode(true);
+        replayed.setLazyOffscreen(true);
+        try (SimulationRecording recording = SimulationRecording.open(file)) {
+            SimulationReplay replay = new SimulationReplay(recording, replayed);
+            replay.setSpeed(1);
+            while (replayed.getTick() < recording.getLastTick()) {
+                replay.tick();
+                int tick = (int) replayed.getTick();
+                assertArrayEquals(expected[tick], positions(replayed.latestFrame()), "positions at tick " + tick);
+            }
+
+            for (long target : new long[]{120, 170, 260, 99}) {
+                replay.seek(target);
+                replay.setSpeed(0);
+                replay.tick();
+                assertEquals(target, replayed.getTick());
+                assertArrayEquals(expected[(int) target], positions(replayed.latestFrame()), "positions after seeking to " + target);
+            }
+        } finally {
+            replayed.shutdown();
+        }
+        assertFalse(Arrays.equals(expected[300], withoutCollisions()), "collisions never changed the outcome");
+    }
+
+    private int[] withoutCollisions() {
+        SimulationEngine engine = new SimulationEngine(WIDTH, HEIGHT, 1);
+        engine.addParticles(randomBatch());
+        for (int tick = 1; tick <= 300; tick++) {
+            engine.step(Constants.PHYSICS_TIME_STEP);
+        }
+        int[] positions = positions(engine.latestFrame());
+        engine.shutdown();
+        return positions;
+    }
+
+    private static ParticleBatch randomBatch() {
+        Random random = new Random(19);
+        ParticleBatch batch = new ParticleBatch(1500);
+        for (int i = 0; i < batch.size; i++) {
+            batch.set(i, 10 + random.nextInt(WIDTH - 20), 10 + random.nextInt(HEIGHT - 20), random.nextDouble() * 360, 50 + random.nextDouble() * 300);
+        }
+        return batch;
+    }
+
+    private static int[] positions(ParticleFrame frame) {
+        int[] positions = new int[2 * frame.count];
+        for (int i = 0; i < frame.count; i++) {
+            positions[2 * i] = frame.x[i];
+            positions[2 * i + 1] = frame.y[i];
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,92 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class VectorPhysicsKernelTest {
+    private static final int PARTICLES = 4099;
+    private static final int TICKS = 600;
+    private static final int WIDTH = 1280;
+    private static final int HEIGHT = 720;
+
+    @Test
+    void matchesParticleUpdatePositionIncludingWallBounces() {
+        Particle[] reference = new Particle[PARTICLES];
+        ParticleStore store = new ParticleStore(PARTICLES);
+        Random random = new Random(PARTICLES);
+        for (int i = 0; i < PARTICLES; i++) {
+            int x = random.nextInt(WIDTH + 20) - 10;
+            int y = random.nextInt(HEIGHT + 20) - 10;
+            double angle = random.nextDouble() * 360;
+            double velocity = random.nextInt(8) == 0 ? 0 : random.nextDouble() * 2000;
+            reference[i] = new Particle(x, y, angle, velocity);
+            store.add(x, y, angle, velocity);
+        }
+        PhysicsKernel kernel = new VectorPhysicsKernel();
+
+        int bounces = 0;
+        for (int tick = 0; tick < TICKS; tick++) {
+            kernel.step(store, 0, store.size(), Constants.PHYSICS_TIME_STEP, WIDTH, HEIGHT);
+            for (int i = 0; i < PARTICLES; i++) {
+                Particle particle = reference[i];
+                double velocityX = particle.velocityX;
+                double velocityY = particle.velocityY;
+                particle.updatePosition(Constants.PHYSICS_TIME_STEP);
+                particle.handleWallCollision(WIDTH, HEIGHT);
+                if (particle.velocityX != velocityX || particle.velocityY != velocityY) bounces++;
+
+                assertEquals(particle.position.x, store.x[i], "x of particle " + i + " at tick " + tick);
+                assertEquals(particle.position.y, store.y[i], "y of particle " + i + " at tick " + tick);
+                assertEquals(particle.velocityX, store.velocityX[i], "velocityX of particle " + i + " at tick " + tick);
+                assertEquals(particle.velocityY, store.velocityY[i], "velocityY of particle " + i + " at tick " + tick);
+            }
+        }
+        assertTrue(bounces > PARTICLES, "only " + bounces + " wall bounces exercised");
+    }
+
+    @Test
+    void matchesScalarKernelBitForBit() {
+        ParticleStore expected = randomStore();
+        ParticleStore actual = randomStore();
+        PhysicsKernel scalar = new ScalarPhysicsKernel();
+        PhysicsKernel vector = new VectorPhysicsKernel();
+
+        for (int tick = 0; tick < TICKS; tick++) {
+            scalar.step(expected, 0, expected.size(), Constants.PHYSICS_TIME_STEP, WIDTH, HEIGHT);
+            vector.step(actual, 0, actual.size(), Constants.PHYSICS_TIME_STEP, WIDTH, HEIGHT);
+        }
+
+        assertArrayEquals(slice(expected.x), slice(actual.x));
+        assertArrayEquals(slice(expected.y), slice(actual.y));
+        assertArrayEquals(slice(expected.previousX), slice(actual.previousX));
+        assertArrayEquals(slice(expected.previousY), slice(actual.previousY));
+        assertArrayEquals(slice(expected.accumulatedX), slice(actual.accumulatedX));
+        assertArrayEquals(slice(expected.accumulatedY), slice(actual.accumulatedY));
+        assertArrayEquals(slice(expected.velocityX), slice(actual.velocityX));
+        assertArrayEquals(slice(expected.velocityY), slice(actual.velocityY));
+    }
+
+    private static ParticleStore randomStore() {
+        Random random = new Random(PARTICLES);
+        ParticleStore store = new ParticleStore(PARTICLES);
+        for (int i = 0; i < PARTICLES; i++) {
+            int x = random.nextInt(WIDTH + 20) - 10;
+            int y = random.nextInt(HEIGHT + 20) - 10;
+            double angle = random.nextDouble() * 360;
+            double velocity = random.nextInt(8) == 0 ? 0 : random.nextDouble() * 2000;
+            store.add(x, y, angle, velocity);
+        }
+        return store;
+    }
+
+    private static int[] slice(int[] values) {
+        return Arrays.copyOf(values, PARTICLES);
+    }
+
+    private static double[] slice(double[] values) {
+        return Arrays.copyOf(values, PARTICLES);
+    }
+}